@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonDataException;
+import com.squareup.moshi.Types;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.file.CurseFiles;
+import com.therandomlabs.curseapi.util.MoshiUtils;
+import com.therandomlabs.curseapi.util.RetrofitUtils;
+import okhttp3.ResponseBody;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.LoggerFactory;
+
+//Retrieves many files in a single request using forgesvc's api/v2/addon/files endpoint, which
+//takes an array of file IDs and returns a map of file IDs to files.
+//The endpoint returns files in the same format as the endpoint that CurseAPI uses to retrieve
+//individual files, so they are deserialized into CurseAPI's own CurseFile implementation, and
+//batched files are indistinguishable from files returned by CurseAPI#file(int, int).
+//That implementation is not public, so it is loaded by name. If it cannot be loaded, e.g. because
+//CurseAPI has been upgraded, no files are batched, so they are all retrieved individually.
+final class BatchFileResolver {
+	private static final String FILE_CLASS_NAME =
+			"com.therandomlabs.curseapi.forgesvc.ForgeSvcFile";
+
+	@Nullable
+	private static final Type FILES_TYPE = filesType();
+
+	private static final BatchFileResolver INSTANCE =
+			create(ForgeSvcMinecraftProvider.FORGESVC_MINECRAFT);
+
+	private final ForgeSvcMinecraft forgeSvcMinecraft;
+	@Nullable
+	private final JsonAdapter<Map<Integer, List<CurseFile>>> adapter =
+			FILES_TYPE == null ? null : MoshiUtils.get().adapter(FILES_TYPE);
+
+	private BatchFileResolver(ForgeSvcMinecraft forgeSvcMinecraft) {
+		this.forgeSvcMinecraft = forgeSvcMinecraft;
+	}
+
+	CurseFiles<CurseFile> resolve(Collection<? extends BasicCurseFile> files)
+			throws CurseException {
+		final CurseFiles<CurseFile> curseFiles = new CurseFiles<>();
+
+		if (files.isEmpty() || adapter == null) {
+			return curseFiles;
+		}
+
+		final List<Integer> fileIDs = new ArrayList<>(files.size());
+
+		for (BasicCurseFile file : files) {
+			fileIDs.add(file.id());
+		}
+
+		final Map<Integer, List<CurseFile>> retrievedFiles;
+
+		try (ResponseBody body = RetrofitUtils.execute(forgeSvcMinecraft.getFiles(fileIDs))) {
+			if (body == null) {
+				throw new CurseException("Failed to retrieve files: " + fileIDs);
+			}
+
+			retrievedFiles = adapter.fromJson(body.source());
+		} catch (IOException | JsonDataException ex) {
+			throw new CurseException("Failed to read files: " + fileIDs, ex);
+		}
+
+		if (retrievedFiles == null) {
+			return curseFiles;
+		}
+
+		//A file is only accepted if its project ID is also correct, so that files that are
+		//not returned or are returned without a project ID are resolved individually instead.
+		for (BasicCurseFile file : files) {
+			final List<CurseFile> candidates = retrievedFiles.get(file.id());
+
+			if (candidates == null) {
+				continue;
+			}
+
+			for (CurseFile candidate : candidates) {
+				if (candidate != null && candidate.id() == file.id() &&
+						candidate.projectID() == file.projectID()) {
+					curseFiles.add(candidate);
+					break;
+				}
+			}
+		}
+
+		return curseFiles;
+	}
+
+	static BatchFileResolver get() {
+		return INSTANCE;
+	}
+
+	static BatchFileResolver create(ForgeSvcMinecraft forgeSvcMinecraft) {
+		return new BatchFileResolver(forgeSvcMinecraft);
+	}
+
+	@Nullable
+	private static Type filesType() {
+		try {
+			return Types.newParameterizedType(
+					Map.class, Integer.class,
+					Types.newParameterizedType(List.class, Class.forName(FILE_CLASS_NAME))
+			);
+		} catch (ClassNotFoundException ex) {
+			LoggerFactory.getLogger(BatchFileResolver.class).warn(
+					"Files will not be retrieved in batches", ex
+			);
+			return null;
+		}
+	}
+}
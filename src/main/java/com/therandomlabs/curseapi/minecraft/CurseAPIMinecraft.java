@@ -23,7 +23,15 @@
 
 package com.therandomlabs.curseapi.minecraft;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.common.base.Preconditions;
 import com.therandomlabs.curseapi.CurseAPI;
+import com.therandomlabs.curseapi.CurseException;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * The main CurseAPI-Minecraft class.
@@ -34,6 +42,13 @@ public final class CurseAPIMinecraft {
 	 */
 	public static final int MINECRAFT_ID = 432;
 
+	//This is read by ForgeSvcMinecraftProvider when it is initialized.
+	static volatile boolean initializingAsync;
+
+	@Nullable
+	private static volatile Path versionCacheDirectory;
+	private static volatile Duration versionCacheTTL = Duration.ofDays(1L);
+
 	private CurseAPIMinecraft() {}
 
 	/**
@@ -43,4 +58,71 @@ public final class CurseAPIMinecraft {
 	public static void initialize() {
 		CurseAPI.addProvider(ForgeSvcMinecraftProvider.INSTANCE, false);
 	}
+
+	/**
+	 * Initializes CurseAPI-Minecraft without blocking on the network.
+	 * This method may be called instead of {@link #initialize()}, and it should be called before
+	 * {@link MCVersions} or {@link MCVersionGroups} is used.
+	 * <p>
+	 * Until the returned {@link CompletableFuture} completes, Minecraft versions are
+	 * backed by the cached version list if {@link #versionCacheDirectory()} contains one, or
+	 * otherwise by a local copy. Once the version list has been retrieved on a dedicated thread,
+	 * the real order of all Minecraft versions is swapped in atomically.
+	 *
+	 * @return a {@link CompletableFuture} that completes when the Minecraft version list has been
+	 * retrieved, or completes exceptionally with a {@link CurseException} if it could not
+	 * be retrieved.
+	 */
+	public static CompletableFuture<Void> initializeAsync() {
+		initializingAsync = true;
+		initialize();
+		return ForgeSvcMinecraftProvider.retrieveVersionsAsync();
+	}
+
+	/**
+	 * Returns the directory in which the list of Minecraft versions retrieved from CurseForge
+	 * is cached.
+	 *
+	 * @return an {@link Optional} containing the version cache directory,
+	 * or {@link Optional#empty()} if the version list is not cached.
+	 */
+	public static Optional<Path> versionCacheDirectory() {
+		return Optional.ofNullable(versionCacheDirectory);
+	}
+
+	/**
+	 * Sets the directory in which the list of Minecraft versions retrieved from CurseForge
+	 * is cached.
+	 * If a cache directory is set, the cached version list is used on startup instead of
+	 * waiting on the network, and it is revalidated in the background once it is older than
+	 * {@link #versionCacheTTL()}.
+	 * This method must be called before {@link MCVersions} or {@link MCVersionGroups} is used
+	 * for it to take effect.
+	 *
+	 * @param directory a {@link Path} to a directory, or {@code null} if the version list should
+	 * not be cached.
+	 */
+	public static void versionCacheDirectory(@Nullable Path directory) {
+		versionCacheDirectory = directory;
+	}
+
+	/**
+	 * Returns the amount of time after which a cached version list is revalidated.
+	 *
+	 * @return the amount of time after which a cached version list is revalidated.
+	 */
+	public static Duration versionCacheTTL() {
+		return versionCacheTTL;
+	}
+
+	/**
+	 * Sets the amount of time after which a cached version list is revalidated.
+	 *
+	 * @param ttl a {@link Duration}.
+	 */
+	public static void versionCacheTTL(Duration ttl) {
+		Preconditions.checkNotNull(ttl, "ttl should not be null");
+		Preconditions.checkArgument(!ttl.isNegative(), "ttl should not be negative");
+		versionCacheTTL = ttl;
+	}
 }
@@ -25,10 +25,17 @@ package com.therandomlabs.curseapi.minecraft;
 
 import java.util.List;
 
+import okhttp3.ResponseBody;
 import retrofit2.Call;
+import retrofit2.http.Body;
 import retrofit2.http.GET;
+import retrofit2.http.POST;
 
 interface ForgeSvcMinecraft {
 	@GET("api/v2/minecraft/version")
 	Call<List<MCVersion>> getVersions();
+
+	//The response is a map of file IDs to files, which is read by BatchFileResolver.
+	@POST("api/v2/addon/files")
+	Call<ResponseBody> getFiles(@Body List<Integer> fileIDs);
 }
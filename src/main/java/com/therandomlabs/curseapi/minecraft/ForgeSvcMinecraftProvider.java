@@ -23,13 +23,23 @@
 
 package com.therandomlabs.curseapi.minecraft;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.NavigableSet;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.therandomlabs.curseapi.CurseAPIProvider;
 import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.file.CurseFiles;
 import com.therandomlabs.curseapi.game.CurseGameVersion;
 import com.therandomlabs.curseapi.util.RetrofitUtils;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -49,8 +59,21 @@ public final class ForgeSvcMinecraftProvider implements CurseAPIProvider {
 	static final ForgeSvcMinecraft FORGESVC_MINECRAFT =
 			RetrofitUtils.get("https://addons-ecs.forgesvc.net/").create(ForgeSvcMinecraft.class);
 
-	static final SortedSet<MCVersion> versions = getVersions();
-	static boolean failedToRetrieveVersions;
+	//Minecraft versions are retrieved on a dedicated thread so that initializeAsync never blocks
+	//on the network.
+	private static final Executor VERSION_EXECUTOR = Executors.newSingleThreadExecutor(
+			new ThreadFactoryBuilder().
+					setNameFormat("CurseAPI-Minecraft version retrieval").
+					setDaemon(true).
+					build()
+	);
+
+	@Nullable
+	private static CompletableFuture<Void> retrieval;
+
+	static {
+		loadVersions();
+	}
 
 	private ForgeSvcMinecraftProvider() {}
 
@@ -61,7 +84,7 @@ public final class ForgeSvcMinecraftProvider implements CurseAPIProvider {
 	@Override
 	public NavigableSet<? extends CurseGameVersion<?>> gameVersions(int id) {
 		MCVersions.initialize();
-		return id == CurseAPIMinecraft.MINECRAFT_ID ? new TreeSet<>(versions) : null;
+		return id == CurseAPIMinecraft.MINECRAFT_ID ? MCVersions.getAll() : null;
 	}
 
 	/**
@@ -74,37 +97,125 @@ public final class ForgeSvcMinecraftProvider implements CurseAPIProvider {
 		return gameID == CurseAPIMinecraft.MINECRAFT_ID ? MCVersions.get(versionString) : null;
 	}
 
-	@SuppressWarnings("PMD.ForLoopCanBeForeach")
-	private static SortedSet<MCVersion> getVersions() {
+	/**
+	 * Retrieves the specified files using a single request to the forgesvc endpoint that
+	 * returns multiple files.
+	 * Files that cannot be retrieved this way are omitted from the returned {@link CurseFiles},
+	 * and they should be retrieved individually using {@link BasicCurseFile#toCurseFile()}.
+	 *
+	 * @param files a {@link Collection} of {@link BasicCurseFile}s.
+	 * @return a {@link CurseFiles} containing the {@link CurseFile}s that could be retrieved.
+	 * @throws CurseException if an error occurs.
+	 */
+	public CurseFiles<CurseFile> files(Collection<? extends BasicCurseFile> files)
+			throws CurseException {
+		Preconditions.checkNotNull(files, "files should not be null");
+		return BatchFileResolver.get().resolve(files);
+	}
+
+	//This method is called by CurseAPIMinecraft#initializeAsync().
+	static synchronized CompletableFuture<Void> retrieveVersionsAsync() {
+		if (retrieval == null || retrieval.isCompletedExceptionally()) {
+			retrieval = CompletableFuture.runAsync(() -> {
+				try {
+					retrieveVersions();
+				} catch (CurseException ex) {
+					throw new CompletionException(ex);
+				}
+			}, VERSION_EXECUTOR);
+
+			retrieval.whenComplete((result, throwable) -> {
+				if (throwable != null) {
+					LoggerFactory.getLogger(ForgeSvcMinecraftProvider.class).error(
+							"Failed to retrieve Minecraft versions", throwable
+					);
+				}
+			});
+		}
+
+		return retrieval;
+	}
+
+	//Retrieved and cached versions are merged using MCVersionRegistry#reorder(List) rather than
+	//registered with their own sort indexes, because MCVersions may have already registered its
+	//local MCVersion instances, whose sort indexes are unrelated to the retrieved ones.
+	//This method is called when ForgeSvcMinecraftProvider is initialized.
+	static void loadVersions() {
 		final Logger logger = LoggerFactory.getLogger(ForgeSvcMinecraftProvider.class);
+		final Path cacheDirectory = CurseAPIMinecraft.versionCacheDirectory().orElse(null);
 
-		try {
-			final List<MCVersion> versions =
-					RetrofitUtils.execute(FORGESVC_MINECRAFT.getVersions());
+		if (cacheDirectory != null) {
+			final MCVersionCache cache = MCVersionCache.read(cacheDirectory);
+
+			if (cache != null) {
+				MCVersionRegistry.reorder(cache.versions());
 
-			if (versions == null) {
-				throw new CurseException("Could not retrieve Minecraft versions");
+				if (cache.isStale(CurseAPIMinecraft.versionCacheTTL())) {
+					retrieveVersionsAsync();
+				} else {
+					retrieval = CompletableFuture.completedFuture(null);
+				}
+
+				return;
 			}
+		}
 
-			for (int i = 0; i < versions.size(); i++) {
-				final MCVersion version = versions.get(i);
-				//Initialize MCVersion#versionGroup so that the MCVersion adds itself to the
-				//version group.
-				version.versionGroup();
-				//We multiply the index by 2 so that snapshots defined in MCVersions can fit in.
-				version.setSortIndex((versions.size() - i - 1) * 2);
+		if (CurseAPIMinecraft.initializingAsync) {
+			//CurseAPIMinecraft#initializeAsync() retrieves the Minecraft versions once MCVersions
+			//has registered the local copy.
+			return;
+		}
+
+		try {
+			final List<MCVersion> versions = fetchVersions();
+
+			if (cacheDirectory != null) {
+				MCVersionCache.write(cacheDirectory, versions);
 			}
 
-			return new TreeSet<>(versions);
+			MCVersionRegistry.reorder(versions);
+			retrieval = CompletableFuture.completedFuture(null);
 		} catch (CurseException ex) {
+			//When MCVersions is initialized, it registers local MCVersion instances.
 			logger.error(
 					"Failed to retrieve Minecraft versions; a local copy will be used instead", ex
 			);
 		}
+	}
+
+	private static List<MCVersion> fetchVersions() throws CurseException {
+		final List<MCVersion> retrievedVersions =
+				RetrofitUtils.execute(FORGESVC_MINECRAFT.getVersions());
+
+		if (retrievedVersions == null) {
+			throw new CurseException("Could not retrieve Minecraft versions");
+		}
+
+		final int size = retrievedVersions.size();
+		final List<MCVersion> versions = new ArrayList<>(size);
+
+		for (int i = 0; i < size; i++) {
+			//The sort indexes are spaced out so that snapshots defined in MCVersions and versions
+			//registered at runtime can be inserted between them.
+			versions.add(new MCVersion(
+					(size - i - 1) * MCVersionRegistry.SORT_INDEX_SPACING,
+					retrievedVersions.get(i).versionString()
+			));
+		}
+
+		return versions;
+	}
+
+	private static void retrieveVersions() throws CurseException {
+		//Wait for MCVersions to register any local MCVersion instances so that they can be
+		//reordered.
+		MCVersions.initialize();
+
+		final List<MCVersion> versions = fetchVersions();
+		CurseAPIMinecraft.versionCacheDirectory().ifPresent(
+				cacheDirectory -> MCVersionCache.write(cacheDirectory, versions)
+		);
 
-		failedToRetrieveVersions = true;
-		//When MCVersions is initialized, it sees that failedToRetrieveVersions is true and
-		//adds local MCVersion instances to this TreeSet.
-		return new TreeSet<>();
+		MCVersionRegistry.reorder(versions);
 	}
 }
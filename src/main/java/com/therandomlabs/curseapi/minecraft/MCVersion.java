@@ -23,31 +23,30 @@
 
 package com.therandomlabs.curseapi.minecraft;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import com.google.common.base.Splitter;
-import com.google.common.primitives.Ints;
 import com.therandomlabs.curseapi.game.CurseGameVersion;
 import com.therandomlabs.curseapi.game.CurseGameVersionGroup;
-import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Represents a version of Minecraft supported by CurseForge.
  */
 public final class MCVersion extends CurseGameVersion<MCVersion> {
-	@SuppressWarnings("FieldMayBeFinal")
-	private static class MCVersionGroup extends CurseGameVersionGroup<MCVersion> {
-		private static final Splitter FULL_STOP_SPLITTER = Splitter.on('.');
+	//This class is used by MCVersionRegistry.
+	static final class MCVersionGroup extends CurseGameVersionGroup<MCVersion> {
+		private static final Map<String, MCVersionGroup> versionGroups =
+				new ConcurrentHashMap<>();
 
-		private static final Map<String, MCVersionGroup> versionGroups = new HashMap<>();
+		private static final AtomicInteger nextOrdinal = new AtomicInteger();
 
-		private String versionString;
-		private Set<MCVersion> versions = new HashSet<>();
+		private final String versionString;
+		//MCVersionRegistry stores the versions in each group in an array indexed by this.
+		//ConcurrentHashMap#computeIfAbsent ensures that only one MCVersionGroup is created
+		//for each version string, so ordinals are not wasted.
+		private final int ordinal = nextOrdinal.getAndIncrement();
 
 		private MCVersionGroup(String versionString) {
 			this.versionString = versionString;
@@ -65,36 +64,66 @@ public final class MCVersion extends CurseGameVersion<MCVersion> {
 
 		@Override
 		public Set<MCVersion> versions() {
-			return new TreeSet<>(versions);
+			return MCVersionRegistry.versionGroup(this);
 		}
 
-		static CurseGameVersionGroup<MCVersion> get(MCVersion version) {
-			final List<String> versionElements =
-					FULL_STOP_SPLITTER.splitToList(version.versionString());
+		//This method is called by MCVersionRegistry.
+		int ordinal() {
+			return ordinal;
+		}
+
+		//Returns the group of the specified version string, which consists of its first two
+		//full stop-separated elements, e.g. 1.12 for 1.12.2.
+		static CurseGameVersionGroup<MCVersion> get(String versionString) {
+			final int firstFullStop = versionString.indexOf('.');
 
 			//Modloaders don't have version groups.
-			if (Ints.tryParse(versionElements.get(0)) == null) {
+			if (firstFullStop <= 0) {
 				return CurseGameVersionGroup.none(CurseAPIMinecraft.MINECRAFT_ID);
 			}
 
-			final String versionString = versionElements.get(0) + "." + versionElements.get(1);
-			final MCVersionGroup versionGroup =
-					versionGroups.computeIfAbsent(versionString, MCVersionGroup::new);
-			versionGroup.versions.add(version);
-			return versionGroup;
+			for (int i = 0; i < firstFullStop; i++) {
+				final char character = versionString.charAt(i);
+
+				if (character < '0' || character > '9') {
+					return CurseGameVersionGroup.none(CurseAPIMinecraft.MINECRAFT_ID);
+				}
+			}
+
+			final int secondFullStop = versionString.indexOf('.', firstFullStop + 1);
+			return versionGroups.computeIfAbsent(
+					secondFullStop == -1 ?
+							versionString : versionString.substring(0, secondFullStop),
+					MCVersionGroup::new
+			);
 		}
 	}
 
-	private int sortIndex;
+	private static final String SNAPSHOT_SUFFIX = "-Snapshot";
+
+	//The actual sort index is stored in MCVersionRegistry so that the sort indexes of all
+	//MCVersions can be swapped atomically. Sort indexes are 64-bit so that they can be spaced
+	//far enough apart for new versions to be inserted between existing ones.
+	private final long sortIndex;
 	private final String versionString;
 	private boolean unknown;
 
-	@Nullable
-	private transient CurseGameVersionGroup<MCVersion> versionGroup;
+	//The ordinal is assigned by MCVersionRegistry when this version is registered, so registered
+	//versions have dense ordinals, and it is -1 for unregistered versions. It is written before
+	//the snapshot containing this version is published, and is therefore visible to any thread
+	//that reads this version from the registry.
+	private transient int ordinal = -1;
+	private final transient boolean snapshot;
 
-	MCVersion(int sortIndex, String versionString) {
+	//The version group is computed once so that it can be safely published through the final
+	//field semantics and looked up without any parsing.
+	private final transient CurseGameVersionGroup<MCVersion> versionGroup;
+
+	MCVersion(long sortIndex, String versionString) {
 		this.sortIndex = sortIndex;
 		this.versionString = versionString;
+		snapshot = versionString.endsWith(SNAPSHOT_SUFFIX);
+		versionGroup = MCVersionGroup.get(versionString);
 	}
 
 	/**
@@ -102,10 +131,6 @@ public final class MCVersion extends CurseGameVersion<MCVersion> {
 	 */
 	@Override
 	public CurseGameVersionGroup<MCVersion> versionGroup() {
-		if (versionGroup == null) {
-			versionGroup = MCVersionGroup.get(this);
-		}
-
 		return versionGroup;
 	}
 
@@ -130,7 +155,7 @@ public final class MCVersion extends CurseGameVersion<MCVersion> {
 	 */
 	@Override
 	public int compareTo(MCVersion version) {
-		return Integer.compare(sortIndex, version.sortIndex);
+		return MCVersionRegistry.compare(this, version);
 	}
 
 	/**
@@ -143,18 +168,46 @@ public final class MCVersion extends CurseGameVersion<MCVersion> {
 		return unknown;
 	}
 
+	/**
+	 * Returns whether this {@link MCVersion} represents the snapshots of a version of Minecraft,
+	 * e.g. {@code 1.15-Snapshot}.
+	 *
+	 * @return {@code true} if this {@link MCVersion} represents snapshots,
+	 * or otherwise {@code false}.
+	 */
+	public boolean isSnapshot() {
+		return snapshot;
+	}
+
 	//This method is called by MCVersions.
 	void setUnknown() {
 		unknown = true;
 	}
 
-	//This method is called by MCVersions.
-	int getSortIndex() {
+	//This method is called by MCVersionCache.
+	long getSortIndex() {
+		return MCVersionRegistry.sortIndex(this);
+	}
+
+	//This method is called by MCVersionRegistry.
+	long initialSortIndex() {
 		return sortIndex;
 	}
 
-	//This method is called by ForgeSVCMinecraftProvider and MCVersions.
-	void setSortIndex(int sortIndex) {
-		this.sortIndex = sortIndex;
+	//This method is called by MCVersionRegistry.
+	int ordinal() {
+		return ordinal;
+	}
+
+	//This method is called by MCVersionRegistry.
+	void setOrdinal(int ordinal) {
+		this.ordinal = ordinal;
+	}
+
+	//Returns MCVersionGroup#ordinal(), or -1 if this version does not belong to a version group.
+	//This method is called by MCVersionRegistry.
+	int versionGroupOrdinal() {
+		return versionGroup instanceof MCVersionGroup ?
+				((MCVersionGroup) versionGroup).ordinal() : -1;
 	}
 }
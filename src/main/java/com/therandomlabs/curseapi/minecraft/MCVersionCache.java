@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.therandomlabs.curseapi.minecraft;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.squareup.moshi.JsonDataException;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.util.MoshiUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+//Stores the last Minecraft version list successfully retrieved from forgesvc, including the
+//real sort indexes, so that startup does not have to wait on the network.
+@SuppressWarnings({"FieldMayBeFinal", "squid:S1068"})
+final class MCVersionCache {
+	private static final class CachedVersion {
+		private String versionString;
+		private long sortIndex;
+	}
+
+	private static final String FILE_NAME = "minecraft_versions.json";
+
+	private static final Logger logger = LoggerFactory.getLogger(MCVersionCache.class);
+
+	private long retrievedAt;
+	private List<CachedVersion> versions = new ArrayList<>();
+
+	//Returns null if the cache does not exist or could not be read.
+	@Nullable
+	static MCVersionCache read(Path directory) {
+		final Path path = directory.resolve(FILE_NAME);
+
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+
+		try {
+			final MCVersionCache cache = MoshiUtils.fromJSON(path, MCVersionCache.class);
+
+			if (cache != null && cache.versions != null && !cache.versions.isEmpty()) {
+				return cache;
+			}
+
+			logger.warn("Ignoring empty Minecraft version cache: {}", path);
+		} catch (CurseException | JsonDataException ex) {
+			logger.warn("Failed to read Minecraft version cache: " + path, ex);
+		}
+
+		return null;
+	}
+
+	static void write(Path directory, List<MCVersion> versions) {
+		final MCVersionCache cache = new MCVersionCache();
+		cache.retrievedAt = System.currentTimeMillis();
+
+		for (MCVersion version : versions) {
+			final CachedVersion cachedVersion = new CachedVersion();
+			cachedVersion.versionString = version.versionString();
+			cachedVersion.sortIndex = version.getSortIndex();
+			cache.versions.add(cachedVersion);
+		}
+
+		final Path path = directory.resolve(FILE_NAME);
+
+		try {
+			Files.createDirectories(directory);
+			//Write to a temporary file first so that other processes never read a partially
+			//written cache.
+			final Path temporaryPath = Files.createTempFile(directory, FILE_NAME, ".tmp");
+			Files.write(temporaryPath, MoshiUtils.toJSON(cache).getBytes(StandardCharsets.UTF_8));
+			Files.move(
+					temporaryPath, path, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE
+			);
+		} catch (IOException ex) {
+			logger.warn("Failed to write Minecraft version cache: " + path, ex);
+		}
+	}
+
+	boolean isStale(Duration ttl) {
+		return System.currentTimeMillis() - retrievedAt > ttl.toMillis();
+	}
+
+	List<MCVersion> versions() {
+		final List<MCVersion> mcVersions = new ArrayList<>(versions.size());
+
+		for (CachedVersion version : versions) {
+			mcVersions.add(new MCVersion(version.sortIndex, version.versionString));
+		}
+
+		return mcVersions;
+	}
+}
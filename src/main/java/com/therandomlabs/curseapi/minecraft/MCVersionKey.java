@@ -0,0 +1,218 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft;
+
+//Parses Minecraft version strings directly from CharSequences into packed long keys without
+//allocating any substrings, lists or boxed integers. Each key identifies exactly one version
+//string, so keys can be used in place of version strings when looking up registered
+//MCVersions. Keys are not ordered chronologically; MCVersionRegistry remains responsible for
+//ordering.
+//
+//The following version strings can be parsed:
+//  <major>.<minor>[.<patch>], e.g. 1.12 and 1.12.2
+//  <major>.<minor>[.<patch>]-Snapshot, e.g. 1.15-Snapshot
+//  <major>.<minor>[.<patch>]-pre[<number>], e.g. 1.14.4-pre2
+//  <major>.<minor>[.<patch>]-rc[<number>], e.g. 1.16-rc1
+//  the names of known modloaders, e.g. Forge
+//Numbers may not have leading zeros and may not be greater than 254, so that every key
+//corresponds to exactly one version string. Any other string is mapped to INVALID.
+//
+//Version keys are laid out as follows, from the least significant bit:
+//  bits 0 to 7: the pre-release or release candidate number plus one, or 0 if there is none
+//  bits 8 to 11: the suffix type
+//  bits 12 to 19: the patch number plus one, or 0 if there is none
+//  bits 20 to 27: the minor version
+//  bits 28 to 35: the major version
+//Modloader keys have LOADER_BIT set and store the index of the modloader in LOADERS.
+final class MCVersionKey {
+	static final long INVALID = -1L;
+
+	private static final int NO_SUFFIX = 0;
+	private static final int SNAPSHOT = 1;
+	private static final int PRE_RELEASE = 2;
+	private static final int RELEASE_CANDIDATE = 3;
+
+	private static final String SNAPSHOT_SUFFIX = "-Snapshot";
+	private static final String PRE_RELEASE_SUFFIX = "-pre";
+	private static final String RELEASE_CANDIDATE_SUFFIX = "-rc";
+
+	private static final int SUFFIX_SHIFT = 8;
+	private static final int PATCH_SHIFT = 12;
+	private static final int MINOR_SHIFT = 20;
+	private static final int MAJOR_SHIFT = 28;
+	private static final long LOADER_BIT = 1L << 40;
+
+	private static final int MAX_NUMBER = 254;
+
+	private static final String[] LOADERS = {
+			"Fabric", "Forge", "LiteLoader", "Rift"
+	};
+
+	private MCVersionKey() {}
+
+	static long of(CharSequence versionString) {
+		final int length = versionString.length();
+
+		if (length == 0) {
+			return INVALID;
+		}
+
+		final char firstCharacter = versionString.charAt(0);
+
+		if (firstCharacter < '0' || firstCharacter > '9') {
+			return loader(versionString);
+		}
+
+		//parseNumber returns the parsed number in the upper 32 bits and the index after it in
+		//the lower 32 bits so that no cursor object has to be allocated.
+		long number = parseNumber(versionString, 0);
+
+		if (number == INVALID || !hasCharacter(versionString, (int) number, '.')) {
+			return INVALID;
+		}
+
+		final long major = number >>> 32;
+		number = parseNumber(versionString, (int) number + 1);
+
+		if (number == INVALID) {
+			return INVALID;
+		}
+
+		final long minor = number >>> 32;
+		long patch = 0L;
+
+		if (hasCharacter(versionString, (int) number, '.')) {
+			number = parseNumber(versionString, (int) number + 1);
+
+			if (number == INVALID) {
+				return INVALID;
+			}
+
+			patch = (number >>> 32) + 1L;
+		}
+
+		final long suffix = suffix(versionString, (int) number);
+
+		if (suffix == INVALID) {
+			return INVALID;
+		}
+
+		return major << MAJOR_SHIFT | minor << MINOR_SHIFT | patch << PATCH_SHIFT | suffix;
+	}
+
+	//Returns the suffix type and number starting at the specified index as they should be
+	//stored in a version key.
+	private static long suffix(CharSequence versionString, int index) {
+		final int length = versionString.length();
+
+		if (index == length) {
+			return NO_SUFFIX;
+		}
+
+		if (matches(versionString, index, SNAPSHOT_SUFFIX)) {
+			return index + SNAPSHOT_SUFFIX.length() == length ?
+					SNAPSHOT << SUFFIX_SHIFT : INVALID;
+		}
+
+		final int type;
+
+		if (matches(versionString, index, PRE_RELEASE_SUFFIX)) {
+			type = PRE_RELEASE;
+			index += PRE_RELEASE_SUFFIX.length();
+		} else if (matches(versionString, index, RELEASE_CANDIDATE_SUFFIX)) {
+			type = RELEASE_CANDIDATE;
+			index += RELEASE_CANDIDATE_SUFFIX.length();
+		} else {
+			return INVALID;
+		}
+
+		if (index == length) {
+			return type << SUFFIX_SHIFT;
+		}
+
+		final long number = parseNumber(versionString, index);
+
+		if (number == INVALID || (int) number != length) {
+			return INVALID;
+		}
+
+		return type << SUFFIX_SHIFT | ((number >>> 32) + 1L);
+	}
+
+	private static long loader(CharSequence versionString) {
+		for (int i = 0; i < LOADERS.length; i++) {
+			if (LOADERS[i].length() == versionString.length() &&
+					matches(versionString, 0, LOADERS[i])) {
+				return LOADER_BIT | i;
+			}
+		}
+
+		return INVALID;
+	}
+
+	private static long parseNumber(CharSequence versionString, int index) {
+		final int length = versionString.length();
+		int number = 0;
+		int end = index;
+
+		for (; end < length; end++) {
+			final char character = versionString.charAt(end);
+
+			if (character < '0' || character > '9') {
+				break;
+			}
+
+			//Leading zeros are rejected so that every key corresponds to one version string.
+			if (end > index && number == 0) {
+				return INVALID;
+			}
+
+			number = number * 10 + character - '0';
+
+			if (number > MAX_NUMBER) {
+				return INVALID;
+			}
+		}
+
+		return end == index ? INVALID : (long) number << 32 | end;
+	}
+
+	private static boolean hasCharacter(CharSequence versionString, int index, char character) {
+		return index < versionString.length() && versionString.charAt(index) == character;
+	}
+
+	private static boolean matches(CharSequence versionString, int index, String string) {
+		if (index + string.length() > versionString.length()) {
+			return false;
+		}
+
+		for (int i = 0; i < string.length(); i++) {
+			if (versionString.charAt(index + i) != string.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
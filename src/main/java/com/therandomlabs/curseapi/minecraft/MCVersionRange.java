@@ -0,0 +1,506 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.file.CurseFile;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Represents a range of Minecraft versions.
+ * <p>
+ * Ranges are written in the same syntax as Maven version ranges: {@code [1.12,1.13)} contains
+ * every version from 1.12 inclusive to 1.13 exclusive, {@code [1.14,)} contains 1.14 and every
+ * newer version, {@code (,1.7.10]} contains 1.7.10 and every older version, and
+ * {@code [1.12.2]} or {@code 1.12.2} only contains 1.12.2. Several ranges can be separated by
+ * commas, e.g. {@code [1.7.10],[1.12,1.13)}, in which case a version is in the range if it is in
+ * any of them. As in Maven, snapshots are older than the versions that they precede, so
+ * {@code [1.12,1.13)} contains {@code 1.13-Snapshot} unless {@link #excludingSnapshots()} is
+ * used. Ranges that are open towards newer versions do not contain modloaders such as
+ * {@link MCVersions#FORGE}, which are not versions of Minecraft.
+ * <p>
+ * Ranges are compiled into intervals of positions in a dense array of all registered versions
+ * in sort order, so checking whether a version is in a range only takes an array lookup and
+ * a couple of comparisons, and iterating over a range only walks a section of the array.
+ * Ranges are compiled again automatically when versions are registered or reordered.
+ */
+public final class MCVersionRange implements Predicate<MCVersion> {
+	private static final class Bound {
+		@Nullable
+		final MCVersion version;
+		final boolean inclusive;
+
+		Bound(@Nullable MCVersion version, boolean inclusive) {
+			this.version = version;
+			this.inclusive = inclusive;
+		}
+	}
+
+	private static final class Compiled {
+		final MCVersionRegistry.Snapshot snapshot;
+		//Pairs of inclusive start ranks and exclusive end ranks.
+		final int[] intervals;
+
+		Compiled(MCVersionRegistry.Snapshot snapshot, int[] intervals) {
+			this.snapshot = snapshot;
+			this.intervals = intervals;
+		}
+	}
+
+	private final Bound[] bounds;
+	private final boolean excludeSnapshots;
+	@Nullable
+	private volatile Compiled compiled;
+
+	private MCVersionRange(Bound[] bounds, boolean excludeSnapshots) {
+		this.bounds = bounds;
+		this.excludeSnapshots = excludeSnapshots;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return toString().hashCode();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object object) {
+		return this == object || (object instanceof MCVersionRange &&
+				toString().equals(object.toString()));
+	}
+
+	/**
+	 * Returns this range in Maven version range syntax. If this range excludes snapshots,
+	 * {@code " excluding snapshots"} is appended.
+	 *
+	 * @return this range in Maven version range syntax.
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder string = new StringBuilder();
+
+		for (int i = 0; i < bounds.length; i += 2) {
+			if (i != 0) {
+				string.append(',');
+			}
+
+			final Bound lower = bounds[i];
+			final Bound upper = bounds[i + 1];
+
+			if (lower.version != null && lower.version == upper.version) {
+				string.append('[').append(lower.version).append(']');
+				continue;
+			}
+
+			string.append(lower.inclusive ? '[' : '(');
+
+			if (lower.version != null) {
+				string.append(lower.version);
+			}
+
+			string.append(',');
+
+			if (upper.version != null) {
+				string.append(upper.version);
+			}
+
+			string.append(upper.inclusive ? ']' : ')');
+		}
+
+		if (excludeSnapshots) {
+			string.append(" excluding snapshots");
+		}
+
+		return string.toString();
+	}
+
+	/**
+	 * Returns whether the specified {@link MCVersion} is in this range.
+	 * This is equivalent to {@link #contains(MCVersion)}.
+	 *
+	 * @param version an {@link MCVersion}.
+	 * @return {@code true} if the specified {@link MCVersion} is in this range,
+	 * or otherwise {@code false}.
+	 */
+	@Override
+	public boolean test(MCVersion version) {
+		return contains(version);
+	}
+
+	/**
+	 * Returns whether the specified {@link MCVersion} is in this range.
+	 *
+	 * @param version an {@link MCVersion}.
+	 * @return {@code true} if the specified {@link MCVersion} is in this range,
+	 * or otherwise {@code false}.
+	 */
+	public boolean contains(MCVersion version) {
+		Preconditions.checkNotNull(version, "version should not be null");
+
+		if (excludeSnapshots && version.isSnapshot()) {
+			return false;
+		}
+
+		final Compiled current = compile();
+		final int rank = current.snapshot.rank(version);
+
+		if (rank < 0) {
+			return false;
+		}
+
+		final int[] intervals = current.intervals;
+
+		for (int i = 0; i < intervals.length; i += 2) {
+			if (rank >= intervals[i] && rank < intervals[i + 1]) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns whether the Minecraft version with the specified version string is in this range.
+	 *
+	 * @param versionString a Minecraft version string.
+	 * @return {@code true} if the Minecraft version with the specified version string is
+	 * in this range, or otherwise {@code false}.
+	 */
+	public boolean contains(String versionString) {
+		Preconditions.checkNotNull(versionString, "versionString should not be null");
+		return contains(MCVersions.get(versionString));
+	}
+
+	/**
+	 * Returns whether any of the specified version strings represents a Minecraft version
+	 * in this range.
+	 *
+	 * @param versionStrings a {@link Collection} of version strings.
+	 * @return {@code true} if any of the specified version strings represents a Minecraft version
+	 * in this range, or otherwise {@code false}.
+	 */
+	public boolean containsAnyStrings(Collection<String> versionStrings) {
+		Preconditions.checkNotNull(versionStrings, "versionStrings should not be null");
+
+		for (String versionString : versionStrings) {
+			if (contains(MCVersions.get(versionString))) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns whether the specified {@link CurseFile} supports a Minecraft version in this range.
+	 *
+	 * @param file a {@link CurseFile}.
+	 * @return {@code true} if any of the game versions of the specified {@link CurseFile} is
+	 * in this range, or otherwise {@code false}.
+	 */
+	public boolean matches(CurseFile file) {
+		Preconditions.checkNotNull(file, "file should not be null");
+		return containsAnyStrings(file.gameVersionStrings());
+	}
+
+	/**
+	 * Returns the registered Minecraft versions in this range.
+	 *
+	 * @return a mutable {@link List} containing the registered {@link MCVersion}s in this range
+	 * from oldest to newest.
+	 */
+	public List<MCVersion> versions() {
+		final Compiled current = compile();
+		final MCVersion[] sortedVersions = current.snapshot.sortedArray;
+		final List<MCVersion> versions = new ArrayList<>();
+
+		for (int i = 0; i < current.intervals.length; i += 2) {
+			for (int rank = current.intervals[i]; rank < current.intervals[i + 1]; rank++) {
+				if (!excludeSnapshots || !sortedVersions[rank].isSnapshot()) {
+					versions.add(sortedVersions[rank]);
+				}
+			}
+		}
+
+		return versions;
+	}
+
+	/**
+	 * Returns a copy of this range that does not contain snapshots, e.g. {@code 1.15-Snapshot}.
+	 *
+	 * @return a copy of this range that does not contain snapshots.
+	 * @see MCVersion#isSnapshot()
+	 */
+	public MCVersionRange excludingSnapshots() {
+		return excludeSnapshots ? this : new MCVersionRange(bounds, true);
+	}
+
+	/**
+	 * Parses a range of Minecraft versions written in Maven version range syntax.
+	 *
+	 * @param range a range of Minecraft versions, e.g. {@code [1.12,1.13)}.
+	 * @return an {@link MCVersionRange}.
+	 * @throws IllegalArgumentException if the range is invalid or refers to an unknown version.
+	 */
+	public static MCVersionRange parse(String range) {
+		Preconditions.checkNotNull(range, "range should not be null");
+
+		final String trimmedRange = range.trim();
+
+		if (!trimmedRange.isEmpty() && trimmedRange.charAt(0) != '[' &&
+				trimmedRange.charAt(0) != '(') {
+			final MCVersion version = parseVersion(trimmedRange, range);
+			return new MCVersionRange(
+					new Bound[] {new Bound(version, true), new Bound(version, true)}, false
+			);
+		}
+
+		final List<Bound> bounds = new ArrayList<>();
+		int index = 0;
+
+		while (true) {
+			if (index >= trimmedRange.length()) {
+				throw invalidRange(range);
+			}
+
+			final char open = trimmedRange.charAt(index);
+
+			if (open != '[' && open != '(') {
+				throw invalidRange(range);
+			}
+
+			int close = index + 1;
+
+			while (close < trimmedRange.length() && trimmedRange.charAt(close) != ']' &&
+					trimmedRange.charAt(close) != ')') {
+				close++;
+			}
+
+			if (close == trimmedRange.length()) {
+				throw invalidRange(range);
+			}
+
+			parseRange(
+					trimmedRange.substring(index + 1, close), open == '[',
+					trimmedRange.charAt(close) == ']', range, bounds
+			);
+
+			index = close + 1;
+
+			while (index < trimmedRange.length() &&
+					Character.isWhitespace(trimmedRange.charAt(index))) {
+				index++;
+			}
+
+			if (index == trimmedRange.length()) {
+				return new MCVersionRange(bounds.toArray(new Bound[0]), false);
+			}
+
+			if (trimmedRange.charAt(index) != ',') {
+				throw invalidRange(range);
+			}
+
+			index++;
+
+			while (index < trimmedRange.length() &&
+					Character.isWhitespace(trimmedRange.charAt(index))) {
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * Returns a range that contains the specified version and every newer version.
+	 *
+	 * @param version an {@link MCVersion}.
+	 * @return an {@link MCVersionRange}.
+	 */
+	public static MCVersionRange atLeast(MCVersion version) {
+		checkVersion(version);
+		return new MCVersionRange(
+				new Bound[] {new Bound(version, true), new Bound(null, false)}, false
+		);
+	}
+
+	/**
+	 * Returns a range that contains the specified version and every older version.
+	 *
+	 * @param version an {@link MCVersion}.
+	 * @return an {@link MCVersionRange}.
+	 */
+	public static MCVersionRange atMost(MCVersion version) {
+		checkVersion(version);
+		return new MCVersionRange(
+				new Bound[] {new Bound(null, false), new Bound(version, true)}, false
+		);
+	}
+
+	/**
+	 * Returns a range that contains the specified versions and every version between them.
+	 *
+	 * @param oldest the oldest {@link MCVersion} in the range.
+	 * @param newest the newest {@link MCVersion} in the range.
+	 * @return an {@link MCVersionRange}.
+	 */
+	public static MCVersionRange between(MCVersion oldest, MCVersion newest) {
+		checkVersion(oldest);
+		checkVersion(newest);
+		Preconditions.checkArgument(
+				!oldest.newerThan(newest), "oldest should not be newer than newest"
+		);
+		return new MCVersionRange(
+				new Bound[] {new Bound(oldest, true), new Bound(newest, true)}, false
+		);
+	}
+
+	private Compiled compile() {
+		final MCVersionRegistry.Snapshot snapshot = MCVersionRegistry.snapshot();
+		Compiled current = compiled;
+
+		if (current != null && current.snapshot == snapshot) {
+			return current;
+		}
+
+		final int[] intervals = new int[bounds.length];
+
+		for (int i = 0; i < bounds.length; i += 2) {
+			final Bound lower = bounds[i];
+			final Bound upper = bounds[i + 1];
+			intervals[i] = lower.version == null ?
+					0 : snapshot.rank(lower.version) + (lower.inclusive ? 0 : 1);
+			//The modloader pseudo-versions, e.g. Forge, are sorted after every version of
+			//Minecraft, but they are not newer versions of Minecraft, so open ranges such as
+			//[1.14,) do not contain them.
+			intervals[i + 1] = upper.version == null ?
+					snapshot.modloaderRank :
+					snapshot.rank(upper.version) + (upper.inclusive ? 1 : 0);
+		}
+
+		//Overlapping intervals are harmless for membership checks, but they would cause
+		//versions() to return duplicates, so they are merged.
+		current = new Compiled(snapshot, merge(intervals));
+		compiled = current;
+		return current;
+	}
+
+	private static int[] merge(int[] intervals) {
+		final int count = intervals.length / 2;
+		final long[] sortedIntervals = new long[count];
+
+		for (int i = 0; i < count; i++) {
+			sortedIntervals[i] = ((long) intervals[i * 2] << 32) | intervals[i * 2 + 1];
+		}
+
+		Arrays.sort(sortedIntervals);
+
+		final int[] merged = new int[intervals.length];
+		int length = 0;
+
+		for (long interval : sortedIntervals) {
+			final int start = (int) (interval >>> 32);
+			final int end = (int) interval;
+
+			if (start >= end) {
+				continue;
+			}
+
+			if (length != 0 && start <= merged[length - 1]) {
+				merged[length - 1] = Math.max(merged[length - 1], end);
+			} else {
+				merged[length++] = start;
+				merged[length++] = end;
+			}
+		}
+
+		return Arrays.copyOf(merged, length);
+	}
+
+	private static void parseRange(
+			String range, boolean lowerInclusive, boolean upperInclusive, String fullRange,
+			List<Bound> bounds
+	) {
+		final int comma = range.indexOf(',');
+
+		if (comma == -1) {
+			//[1.12.2] only contains 1.12.2.
+			if (!lowerInclusive || !upperInclusive) {
+				throw invalidRange(fullRange);
+			}
+
+			final MCVersion version = parseVersion(range.trim(), fullRange);
+			bounds.add(new Bound(version, true));
+			bounds.add(new Bound(version, true));
+			return;
+		}
+
+		final String lowerString = range.substring(0, comma).trim();
+		final String upperString = range.substring(comma + 1).trim();
+
+		if (upperString.indexOf(',') != -1) {
+			throw invalidRange(fullRange);
+		}
+
+		final MCVersion lower =
+				lowerString.isEmpty() ? null : parseVersion(lowerString, fullRange);
+		final MCVersion upper =
+				upperString.isEmpty() ? null : parseVersion(upperString, fullRange);
+
+		if (lower != null && upper != null && lower.newerThan(upper)) {
+			throw invalidRange(fullRange);
+		}
+
+		bounds.add(new Bound(lower, lower != null && lowerInclusive));
+		bounds.add(new Bound(upper, upper != null && upperInclusive));
+	}
+
+	private static MCVersion parseVersion(String versionString, String range) {
+		final MCVersion version = MCVersions.get(versionString);
+
+		if (version.isUnknown()) {
+			throw new IllegalArgumentException("Unknown Minecraft version in range: " + range);
+		}
+
+		return version;
+	}
+
+	private static void checkVersion(MCVersion version) {
+		Preconditions.checkNotNull(version, "version should not be null");
+		Preconditions.checkArgument(!version.isUnknown(), "version should not be unknown");
+	}
+
+	private static IllegalArgumentException invalidRange(String range) {
+		return new IllegalArgumentException("Invalid Minecraft version range: " + range);
+	}
+}
@@ -0,0 +1,457 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.therandomlabs.curseapi.minecraft;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.therandomlabs.curseapi.minecraft.util.LongObjectMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+//An immutable, hash-indexed view of all registered MCVersions and their sort indexes.
+//This registry is copy-on-write: readers only perform a single volatile read and never block,
+//and registrations and reorderings build a new snapshot and publish it while holding a lock.
+//Readers therefore always see a consistent set of versions and sort indexes.
+//Writers are serialized rather than retried so that each version is assigned its ordinal
+//exactly once, when it is first registered, which keeps ordinals dense.
+final class MCVersionRegistry {
+	//This class is used by MCVersionRange.
+	static final class Snapshot {
+		//In registration order.
+		final ImmutableMap<String, MCVersion> versions;
+		//The versions whose version strings can be parsed by MCVersionKey, keyed by
+		//MCVersionKey#of(CharSequence), so that they can be looked up without allocating a
+		//String. This map must never be modified once it is published.
+		private final LongObjectMap<MCVersion> versionKeys;
+		//Indexed by MCVersion#ordinal(), which is the position of a version in versions.
+		//This array must never be modified once it is published.
+		final long[] sortIndexes;
+		//Versions with equal sort indexes are ordered by registration.
+		final Comparator<MCVersion> comparator;
+		//These views are precomputed so that they can be returned without being copied.
+		//They are ordered by the sort indexes in this snapshot rather than the published ones,
+		//which may change while they are in use.
+		final MCVersionSet sortedVersions;
+		//Indexed by MCVersionGroup#ordinal(), or null for groups with no registered versions.
+		//Group membership is computed once here so that it never has to be recomputed by
+		//readers. This array must never be modified once it is published.
+		private final MCVersionSet[] versionGroups;
+		//A dense array of all versions in sort order, and the position of each version in it
+		//indexed by MCVersion#ordinal(), or -1 for unregistered versions. A version's position
+		//is its rank, so ranges of versions can be represented as ranges of ranks.
+		//These arrays must never be modified once they are published.
+		final MCVersion[] sortedArray;
+		private final int[] ranks;
+		//The rank of the first of the versions at the end of the sort order that do not belong
+		//to version groups, i.e. the modloaders, or the number of registered versions if there
+		//are none. New versions of Minecraft are registered here, and ranges of versions that
+		//are open towards newer versions end here.
+		final int modloaderRank;
+
+		Snapshot(ImmutableMap<String, MCVersion> versions, long[] sortIndexes) {
+			this.versions = versions;
+			this.sortIndexes = sortIndexes;
+
+			//Unregistered versions all have the ordinal -1, so they are finally ordered by their
+			//version strings to keep the order consistent with MCVersion#equals(Object).
+			comparator = Comparator.<MCVersion>comparingLong(this::sortIndex).
+					thenComparingInt(MCVersion::ordinal).
+					thenComparing(MCVersion::versionString);
+			sortedArray = versions.values().toArray(new MCVersion[0]);
+			Arrays.sort(sortedArray, comparator);
+
+			int firstModloaderRank = sortedArray.length;
+
+			while (firstModloaderRank > 0 &&
+					sortedArray[firstModloaderRank - 1].versionGroupOrdinal() < 0) {
+				firstModloaderRank--;
+			}
+
+			modloaderRank = firstModloaderRank;
+			ranks = new int[sortIndexes.length];
+			Arrays.fill(ranks, -1);
+
+			versionKeys = new LongObjectMap<>(versions.size());
+
+			for (MCVersion version : versions.values()) {
+				final long key = MCVersionKey.of(version.versionString());
+
+				if (key != MCVersionKey.INVALID) {
+					versionKeys.put(key, version);
+				}
+			}
+
+			//Every registered ordinal is below sortIndexes.length, so the bitsets of all
+			//MCVersionSets built here fit in this many words.
+			final int words = (sortIndexes.length + 63) >>> 6;
+			final long[] allVersions = new long[words];
+			final int[] allRanks = new int[sortedArray.length];
+			int groupCount = 0;
+
+			for (int i = 0; i < sortedArray.length; i++) {
+				final int ordinal = sortedArray[i].ordinal();
+				ranks[ordinal] = i;
+				allVersions[ordinal >>> 6] |= 1L << ordinal;
+				allRanks[i] = i;
+				groupCount = Math.max(groupCount, sortedArray[i].versionGroupOrdinal() + 1);
+			}
+
+			sortedVersions = new MCVersionSet(this, allVersions, allRanks);
+
+			final int[] groupSizes = new int[groupCount];
+
+			for (MCVersion version : sortedArray) {
+				final int group = version.versionGroupOrdinal();
+
+				if (group >= 0) {
+					groupSizes[group]++;
+				}
+			}
+
+			final long[][] groupVersions = new long[groupCount][];
+			final int[][] groupRanks = new int[groupCount][];
+
+			//We iterate in reverse so that groupSizes can be used to fill each rank array from
+			//the end, which leaves the ranks sorted.
+			for (int i = sortedArray.length - 1; i >= 0; i--) {
+				final int group = sortedArray[i].versionGroupOrdinal();
+
+				if (group < 0) {
+					continue;
+				}
+
+				if (groupRanks[group] == null) {
+					groupVersions[group] = new long[words];
+					groupRanks[group] = new int[groupSizes[group]];
+				}
+
+				final int ordinal = sortedArray[i].ordinal();
+				groupVersions[group][ordinal >>> 6] |= 1L << ordinal;
+				groupRanks[group][--groupSizes[group]] = i;
+			}
+
+			versionGroups = new MCVersionSet[groupCount];
+
+			for (int i = 0; i < groupCount; i++) {
+				if (groupRanks[i] != null) {
+					versionGroups[i] = new MCVersionSet(this, groupVersions[i], groupRanks[i]);
+				}
+			}
+		}
+
+		long sortIndex(MCVersion version) {
+			final int ordinal = version.ordinal();
+
+			if (ordinal >= 0 && ordinal < sortIndexes.length &&
+					sortIndexes[ordinal] != UNREGISTERED) {
+				return sortIndexes[ordinal];
+			}
+
+			return version.initialSortIndex();
+		}
+
+		@Nullable
+		MCVersion get(CharSequence versionString) {
+			final long key = MCVersionKey.of(versionString);
+
+			//Version strings that MCVersionKey cannot parse, e.g. the names of unknown
+			//modloaders, are looked up by their String values.
+			return key == MCVersionKey.INVALID ?
+					versions.get(versionString.toString()) : versionKeys.get(key);
+		}
+
+		int rank(MCVersion version) {
+			return rank(version.ordinal());
+		}
+
+		int rank(int ordinal) {
+			return ordinal >= 0 && ordinal < ranks.length ? ranks[ordinal] : -1;
+		}
+
+		//The methods below assign ordinals to newly registered versions, so they should only be
+		//called while holding the MCVersionRegistry lock, and the snapshots they return should
+		//always be published.
+
+		//Newly registered MCVersions are sorted by MCVersion#initialSortIndex().
+		Snapshot register(Collection<MCVersion> newVersions) {
+			final Map<String, MCVersion> newIndex = new LinkedHashMap<>(versions);
+			final List<MCVersion> registered = new ArrayList<>(newVersions.size());
+
+			for (MCVersion version : newVersions) {
+				//If the same version string is registered twice, the first MCVersion takes
+				//precedence.
+				if (add(newIndex, version)) {
+					registered.add(version);
+				}
+			}
+
+			if (registered.isEmpty()) {
+				return this;
+			}
+
+			final long[] newSortIndexes = copySortIndexes(registered);
+
+			for (MCVersion version : registered) {
+				newSortIndexes[version.ordinal()] = version.initialSortIndex();
+			}
+
+			return new Snapshot(ImmutableMap.copyOf(newIndex), newSortIndexes);
+		}
+
+		//See MCVersionRegistry#reorder(List).
+		Snapshot reorder(List<MCVersion> retrievedVersions) {
+			final Map<String, MCVersion> newIndex = new LinkedHashMap<>(versions);
+			final List<MCVersion> retrievedOrder = new ArrayList<>(retrievedVersions.size());
+
+			for (int i = retrievedVersions.size() - 1; i >= 0; i--) {
+				final MCVersion version = retrievedVersions.get(i);
+				final MCVersion registered = newIndex.get(version.versionString());
+
+				if (registered == null) {
+					add(newIndex, version);
+					retrievedOrder.add(version);
+				} else if (!retrievedOrder.contains(registered)) {
+					retrievedOrder.add(registered);
+				}
+			}
+
+			final Set<MCVersion> retrieved = new HashSet<>(retrievedOrder);
+			final Map<MCVersion, List<MCVersion>> followers = new HashMap<>();
+			final List<MCVersion> leading = new ArrayList<>();
+			List<MCVersion> trailing = leading;
+
+			for (MCVersion version : sortedVersions) {
+				if (retrieved.contains(version)) {
+					trailing = new ArrayList<>();
+					followers.put(version, trailing);
+				} else {
+					trailing.add(version);
+				}
+			}
+
+			final List<MCVersion> order = new ArrayList<>(newIndex.size());
+			order.addAll(leading);
+
+			for (MCVersion version : retrievedOrder) {
+				order.add(version);
+
+				final List<MCVersion> versionFollowers = followers.get(version);
+
+				if (versionFollowers != null && versionFollowers != trailing) {
+					order.addAll(versionFollowers);
+				}
+			}
+
+			if (trailing != leading) {
+				order.addAll(trailing);
+			}
+
+			return withOrder(newIndex, order);
+		}
+
+		//Registers the specified version directly before or after the specified registered
+		//version by giving it a sort index between those of its new neighbours so that no other
+		//sort indexes need to change. If the neighbour is null, the version is registered as
+		//the newest version of Minecraft, i.e. before the modloaders at the end, which do not
+		//belong to version groups, or after every registered version if it is a modloader.
+		//Only if there is no room left between the neighbours are all sort indexes respaced.
+		Snapshot insert(MCVersion version, @Nullable MCVersion neighbour, boolean after) {
+			if (versions.containsKey(version.versionString())) {
+				return this;
+			}
+
+			int rank = sortedArray.length;
+
+			if (neighbour == null) {
+				if (version.versionGroupOrdinal() >= 0) {
+					rank = modloaderRank;
+				}
+			} else {
+				final int neighbourRank = rank(neighbour);
+				Preconditions.checkArgument(
+						neighbourRank >= 0, "neighbour should be registered: %s", neighbour
+				);
+				rank = after ? neighbourRank + 1 : neighbourRank;
+			}
+
+			final Map<String, MCVersion> newIndex = new LinkedHashMap<>(versions);
+			add(newIndex, version);
+
+			final long sortIndex;
+
+			if (sortedArray.length == 0) {
+				sortIndex = 0L;
+			} else if (rank == 0) {
+				sortIndex = sortIndex(sortedArray[0]) - SORT_INDEX_SPACING;
+			} else if (rank == sortedArray.length) {
+				sortIndex = sortIndex(sortedArray[rank - 1]) + SORT_INDEX_SPACING;
+			} else {
+				final long lower = sortIndex(sortedArray[rank - 1]);
+				final long upper = sortIndex(sortedArray[rank]);
+
+				if (upper - lower < 2L) {
+					final List<MCVersion> order = new ArrayList<>(Arrays.asList(sortedArray));
+					order.add(rank, version);
+					return withOrder(newIndex, order);
+				}
+
+				sortIndex = lower + (upper - lower) / 2L;
+			}
+
+			final long[] newSortIndexes = copySortIndexes(Collections.singleton(version));
+			newSortIndexes[version.ordinal()] = sortIndex;
+			return new Snapshot(ImmutableMap.copyOf(newIndex), newSortIndexes);
+		}
+
+		//Returns a snapshot of the specified versions in which the specified order is
+		//represented by evenly spaced sort indexes.
+		private Snapshot withOrder(Map<String, MCVersion> newIndex, List<MCVersion> order) {
+			final long[] newSortIndexes = copySortIndexes(order);
+
+			for (int i = 0; i < order.size(); i++) {
+				newSortIndexes[order.get(i).ordinal()] = i * SORT_INDEX_SPACING;
+			}
+
+			return new Snapshot(ImmutableMap.copyOf(newIndex), newSortIndexes);
+		}
+
+		//Adds the specified version to the specified index if its version string is not already
+		//registered and assigns it the next ordinal, which is the number of versions that were
+		//registered before it.
+		private static boolean add(Map<String, MCVersion> newIndex, MCVersion version) {
+			if (newIndex.containsKey(version.versionString())) {
+				return false;
+			}
+
+			version.setOrdinal(newIndex.size());
+			newIndex.put(version.versionString(), version);
+			return true;
+		}
+
+		private long[] copySortIndexes(Collection<MCVersion> newVersions) {
+			int length = sortIndexes.length;
+
+			for (MCVersion version : newVersions) {
+				length = Math.max(length, version.ordinal() + 1);
+			}
+
+			final long[] newSortIndexes = Arrays.copyOf(sortIndexes, length);
+			Arrays.fill(newSortIndexes, sortIndexes.length, length, UNREGISTERED);
+			return newSortIndexes;
+		}
+	}
+
+	//The distance between the sort indexes of consecutive versions retrieved from forgesvc, which
+	//leaves room for 32 consecutive insertions at the same position before respacing is needed.
+	static final long SORT_INDEX_SPACING = 1L << 32;
+
+	private static final long UNREGISTERED = Long.MIN_VALUE;
+
+	private static volatile Snapshot snapshot = new Snapshot(ImmutableMap.of(), new long[0]);
+
+	private MCVersionRegistry() {}
+
+	//This method is called by MCVersionRange.
+	static Snapshot snapshot() {
+		return snapshot;
+	}
+
+	@Nullable
+	static MCVersion get(CharSequence versionString) {
+		return snapshot.get(versionString);
+	}
+
+	static int size() {
+		return snapshot.versions.size();
+	}
+
+	//Returns an immutable view of all registered MCVersions.
+	static MCVersionSet sortedVersions() {
+		return snapshot.sortedVersions;
+	}
+
+	//Returns an immutable view of the registered MCVersions in the specified version group.
+	static MCVersionSet versionGroup(MCVersion.MCVersionGroup versionGroup) {
+		final Snapshot current = snapshot;
+		final int ordinal = versionGroup.ordinal();
+
+		if (ordinal < current.versionGroups.length && current.versionGroups[ordinal] != null) {
+			return current.versionGroups[ordinal];
+		}
+
+		return new MCVersionSet(current, new long[0]);
+	}
+
+	static long sortIndex(MCVersion version) {
+		return snapshot.sortIndex(version);
+	}
+
+	//Versions are compared using the same comparator as MCVersionSets so that
+	//MCVersion#compareTo(MCVersion) agrees with their order and never returns 0 for distinct
+	//versions with the same sort index.
+	//This method is called by MCVersion#compareTo(MCVersion).
+	static int compare(MCVersion version1, MCVersion version2) {
+		return snapshot.comparator.compare(version1, version2);
+	}
+
+	//This method is called by MCVersions.
+	static void register(MCVersion version) {
+		registerAll(Collections.singleton(version));
+	}
+
+	//This method is called by ForgeSvcMinecraftProvider and MCVersions.
+	static synchronized void registerAll(Collection<MCVersion> newVersions) {
+		snapshot = snapshot.register(newVersions);
+	}
+
+	//Registers the specified version directly before or after the specified registered version,
+	//or as the newest version of Minecraft if it is null, and returns the registered MCVersion with
+	//the same version string, which is the specified version unless one was already registered.
+	//This method is called by MCVersions.
+	static synchronized MCVersion insert(
+			MCVersion version, @Nullable MCVersion neighbour, boolean after
+	) {
+		snapshot = snapshot.insert(version, neighbour, after);
+		return snapshot.versions.get(version.versionString());
+	}
+
+	//This method is called by ForgeSvcMinecraftProvider when the Minecraft version list has been
+	//retrieved from forgesvc. It swaps in the real order of the specified versions, which should
+	//be ordered from newest to oldest. Registered versions that are not in the list (e.g.
+	//snapshots and modloaders) stay directly after the retrieved version that they currently
+	//follow, and versions that currently follow every retrieved version stay at the end.
+	static synchronized void reorder(List<MCVersion> retrievedVersions) {
+		snapshot = snapshot.reorder(retrievedVersions);
+	}
+}
@@ -0,0 +1,600 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable {@link NavigableSet} of registered {@link MCVersion}s.
+ * <p>
+ * Each registered {@link MCVersion} has a small, dense ordinal, and an {@link MCVersionSet}
+ * stores the ordinals of its elements in a {@code long[]} bitset, so a set of Minecraft versions
+ * only costs a few words, membership checks are a single bit test, and unions, intersections
+ * and subset checks are performed a word at a time.
+ * Elements are ordered by the sort indexes that were registered when the set was created,
+ * and are also stored in a sorted array so that iteration and navigation do not depend on the
+ * number of registered versions.
+ * <p>
+ * The sets returned by {@link MCVersions#getAll()} and the {@code versions()} methods of
+ * Minecraft version groups are {@link MCVersionSet}s, so {@link #copyOf(Collection)} returns
+ * them without copying.
+ */
+public final class MCVersionSet extends AbstractSet<MCVersion> implements NavigableSet<MCVersion> {
+	private static final long[] NO_WORDS = new long[0];
+
+	private final MCVersionRegistry.Snapshot snapshot;
+	//Indexed by MCVersion#ordinal(). Trailing zero words are trimmed.
+	private final long[] words;
+	//The elements of this set in sort order, and their ranks in the snapshot.
+	private final MCVersion[] elements;
+	private final int[] ranks;
+
+	//This constructor is called by MCVersionRegistry.
+	MCVersionSet(MCVersionRegistry.Snapshot snapshot, long[] words) {
+		this(snapshot, words, sortedRanks(snapshot, words));
+	}
+
+	//The specified ranks should be sorted and should correspond to the bits in words.
+	//This constructor is called by MCVersionRegistry.
+	MCVersionSet(MCVersionRegistry.Snapshot snapshot, long[] words, int[] ranks) {
+		this.snapshot = snapshot;
+
+		int length = words.length;
+
+		while (length > 0 && words[length - 1] == 0L) {
+			length--;
+		}
+
+		this.words = length == 0 ? NO_WORDS : length == words.length ? words :
+				Arrays.copyOf(words, length);
+		this.ranks = ranks;
+		elements = new MCVersion[ranks.length];
+
+		for (int i = 0; i < ranks.length; i++) {
+			elements[i] = snapshot.sortedArray[ranks[i]];
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return elements.length;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return elements.length == 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(Object object) {
+		if (!(object instanceof MCVersion)) {
+			return false;
+		}
+
+		final MCVersion version = (MCVersion) object;
+
+		if (contains(version.ordinal())) {
+			return true;
+		}
+
+		//MCVersions are equal if their version strings are equal, so an unregistered MCVersion
+		//is equal to the registered MCVersion with the same version string.
+		final MCVersion registered = MCVersionRegistry.get(version.versionString());
+		return registered != null && registered != version && contains(registered.ordinal());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean containsAll(Collection<?> collection) {
+		if (!(collection instanceof MCVersionSet)) {
+			return super.containsAll(collection);
+		}
+
+		final long[] otherWords = ((MCVersionSet) collection).words;
+
+		if (otherWords.length > words.length) {
+			return false;
+		}
+
+		for (int i = 0; i < otherWords.length; i++) {
+			if ((words[i] & otherWords[i]) != otherWords[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object object) {
+		if (object instanceof MCVersionSet) {
+			return Arrays.equals(words, ((MCVersionSet) object).words);
+		}
+
+		return super.equals(object);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+	/**
+	 * Returns whether this set contains any of the elements in the specified set.
+	 *
+	 * @param set an {@link MCVersionSet}.
+	 * @return {@code true} if this set contains any of the elements in the specified set,
+	 * or otherwise {@code false}.
+	 */
+	public boolean intersects(MCVersionSet set) {
+		Preconditions.checkNotNull(set, "set should not be null");
+		final int length = Math.min(words.length, set.words.length);
+
+		for (int i = 0; i < length; i++) {
+			if ((words[i] & set.words[i]) != 0L) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Returns an {@link MCVersionSet} that contains the elements in both this set and the
+	 * specified set.
+	 *
+	 * @param set an {@link MCVersionSet}.
+	 * @return the union of this set and the specified set.
+	 */
+	public MCVersionSet union(MCVersionSet set) {
+		Preconditions.checkNotNull(set, "set should not be null");
+		final long[] longer = words.length >= set.words.length ? words : set.words;
+		final long[] shorter = longer == words ? set.words : words;
+		final long[] union = longer.clone();
+
+		for (int i = 0; i < shorter.length; i++) {
+			union[i] |= shorter[i];
+		}
+
+		return new MCVersionSet(MCVersionRegistry.snapshot(), union);
+	}
+
+	/**
+	 * Returns an {@link MCVersionSet} that contains the elements that are in both this set
+	 * and the specified set.
+	 *
+	 * @param set an {@link MCVersionSet}.
+	 * @return the intersection of this set and the specified set.
+	 */
+	public MCVersionSet intersection(MCVersionSet set) {
+		Preconditions.checkNotNull(set, "set should not be null");
+		final long[] intersection = Arrays.copyOf(words, Math.min(words.length, set.words.length));
+
+		for (int i = 0; i < intersection.length; i++) {
+			intersection[i] &= set.words[i];
+		}
+
+		return new MCVersionSet(MCVersionRegistry.snapshot(), intersection);
+	}
+
+	/**
+	 * Returns an {@link MCVersionSet} that contains the elements in this set that are not in
+	 * the specified set.
+	 *
+	 * @param set an {@link MCVersionSet}.
+	 * @return the difference of this set and the specified set.
+	 */
+	public MCVersionSet difference(MCVersionSet set) {
+		Preconditions.checkNotNull(set, "set should not be null");
+		final long[] difference = words.clone();
+		final int length = Math.min(difference.length, set.words.length);
+
+		for (int i = 0; i < length; i++) {
+			difference[i] &= ~set.words[i];
+		}
+
+		return new MCVersionSet(MCVersionRegistry.snapshot(), difference);
+	}
+
+	/**
+	 * Returns whether every element in this set is also in the specified set.
+	 *
+	 * @param set an {@link MCVersionSet}.
+	 * @return {@code true} if this set is a subset of the specified set,
+	 * or otherwise {@code false}.
+	 */
+	public boolean isSubsetOf(MCVersionSet set) {
+		Preconditions.checkNotNull(set, "set should not be null");
+		return set.containsAll(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<MCVersion> iterator() {
+		return Iterators.forArray(elements);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<MCVersion> descendingIterator() {
+		return Lists.reverse(Arrays.asList(elements)).iterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Comparator<? super MCVersion> comparator() {
+		return snapshot.comparator;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public MCVersion first() {
+		if (elements.length == 0) {
+			throw new NoSuchElementException();
+		}
+
+		return elements[0];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public MCVersion last() {
+		if (elements.length == 0) {
+			throw new NoSuchElementException();
+		}
+
+		return elements[elements.length - 1];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public MCVersion lower(MCVersion version) {
+		return elementBefore(rank(version, false));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public MCVersion floor(MCVersion version) {
+		return elementBefore(rank(version, true));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public MCVersion ceiling(MCVersion version) {
+		return elementFrom(rank(version, false));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Nullable
+	@Override
+	public MCVersion higher(MCVersion version) {
+		return elementFrom(rank(version, true));
+	}
+
+	/**
+	 * Always throws {@link UnsupportedOperationException}.
+	 *
+	 * @return nothing.
+	 * @throws UnsupportedOperationException always.
+	 * @deprecated {@link MCVersionSet}s are immutable.
+	 */
+	@Deprecated
+	@Override
+	public MCVersion pollFirst() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Always throws {@link UnsupportedOperationException}.
+	 *
+	 * @return nothing.
+	 * @throws UnsupportedOperationException always.
+	 * @deprecated {@link MCVersionSet}s are immutable.
+	 */
+	@Deprecated
+	@Override
+	public MCVersion pollLast() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public NavigableSet<MCVersion> descendingSet() {
+		return ImmutableSortedSet.copyOf(snapshot.comparator, this).descendingSet();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Since {@link MCVersionSet}s are immutable, the returned set is a copy.
+	 */
+	@Override
+	public MCVersionSet subSet(
+			MCVersion fromElement, boolean fromInclusive, MCVersion toElement,
+			boolean toInclusive
+	) {
+		Preconditions.checkArgument(
+				snapshot.comparator.compare(fromElement, toElement) <= 0,
+				"fromElement should not be greater than toElement"
+		);
+		return subSet(rank(fromElement, !fromInclusive), rank(toElement, toInclusive));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Since {@link MCVersionSet}s are immutable, the returned set is a copy.
+	 */
+	@Override
+	public MCVersionSet headSet(MCVersion toElement, boolean inclusive) {
+		return subSet(0, rank(toElement, inclusive));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Since {@link MCVersionSet}s are immutable, the returned set is a copy.
+	 */
+	@Override
+	public MCVersionSet tailSet(MCVersion fromElement, boolean inclusive) {
+		return subSet(rank(fromElement, !inclusive), snapshot.sortedArray.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Since {@link MCVersionSet}s are immutable, the returned set is a copy.
+	 */
+	@Override
+	public SortedSet<MCVersion> subSet(MCVersion fromElement, MCVersion toElement) {
+		return subSet(fromElement, true, toElement, false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Since {@link MCVersionSet}s are immutable, the returned set is a copy.
+	 */
+	@Override
+	public SortedSet<MCVersion> headSet(MCVersion toElement) {
+		return headSet(toElement, false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * Since {@link MCVersionSet}s are immutable, the returned set is a copy.
+	 */
+	@Override
+	public SortedSet<MCVersion> tailSet(MCVersion fromElement) {
+		return tailSet(fromElement, true);
+	}
+
+	/**
+	 * Returns an {@link MCVersionSet} that contains all Minecraft versions supported by
+	 * CurseForge.
+	 *
+	 * @return the {@link MCVersionSet} returned by {@link MCVersions#getAll()}.
+	 */
+	public static MCVersionSet all() {
+		return MCVersionRegistry.sortedVersions();
+	}
+
+	/**
+	 * Returns an empty {@link MCVersionSet}.
+	 *
+	 * @return an empty {@link MCVersionSet}.
+	 */
+	public static MCVersionSet of() {
+		return new MCVersionSet(MCVersionRegistry.snapshot(), NO_WORDS);
+	}
+
+	/**
+	 * Returns an {@link MCVersionSet} that contains the specified versions.
+	 *
+	 * @param versions an array of registered {@link MCVersion}s.
+	 * @return an {@link MCVersionSet} that contains the specified versions.
+	 * @throws IllegalArgumentException if any of the versions is not registered, e.g.
+	 * {@link MCVersions#UNKNOWN}.
+	 */
+	public static MCVersionSet of(MCVersion... versions) {
+		Preconditions.checkNotNull(versions, "versions should not be null");
+		return copyOf(Arrays.asList(versions));
+	}
+
+	/**
+	 * Returns an {@link MCVersionSet} that contains the specified versions.
+	 *
+	 * @param versions a {@link Collection} of registered {@link MCVersion}s.
+	 * @return an {@link MCVersionSet} that contains the specified versions.
+	 * @throws IllegalArgumentException if any of the versions is not registered, e.g.
+	 * {@link MCVersions#UNKNOWN}.
+	 */
+	public static MCVersionSet copyOf(Collection<? extends MCVersion> versions) {
+		Preconditions.checkNotNull(versions, "versions should not be null");
+
+		if (versions instanceof MCVersionSet) {
+			return (MCVersionSet) versions;
+		}
+
+		final MCVersionRegistry.Snapshot snapshot = MCVersionRegistry.snapshot();
+		long[] words = NO_WORDS;
+
+		for (MCVersion version : versions) {
+			Preconditions.checkNotNull(version, "versions should not contain null");
+			MCVersion registered = version;
+
+			if (snapshot.rank(version) < 0) {
+				registered = snapshot.versions.get(version.versionString());
+				Preconditions.checkArgument(
+						registered != null, "version should be registered: %s", version
+				);
+			}
+
+			final int word = registered.ordinal() >>> 6;
+
+			if (word >= words.length) {
+				words = Arrays.copyOf(words, word + 1);
+			}
+
+			words[word] |= 1L << registered.ordinal();
+		}
+
+		return new MCVersionSet(snapshot, words);
+	}
+
+	private boolean contains(int ordinal) {
+		final int word = ordinal >>> 6;
+		return word < words.length && (words[word] & (1L << ordinal)) != 0L;
+	}
+
+	//Returns the number of registered versions that are older than the specified version, or
+	//that are not newer than it if inclusive is true.
+	private int rank(MCVersion version, boolean inclusive) {
+		Preconditions.checkNotNull(version, "version should not be null");
+		final int rank = snapshot.rank(version);
+
+		if (rank >= 0) {
+			return inclusive ? rank + 1 : rank;
+		}
+
+		//The version is not registered in the snapshot, so we find where it would be inserted.
+		final MCVersion[] sortedVersions = snapshot.sortedArray;
+		int low = 0;
+		int high = sortedVersions.length;
+
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			final int comparison = snapshot.comparator.compare(sortedVersions[middle], version);
+
+			if (comparison < 0 || (inclusive && comparison == 0)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return low;
+	}
+
+	//Returns the index of the first element whose rank is not lower than the specified rank.
+	private int indexOfRank(int rank) {
+		final int index = Arrays.binarySearch(ranks, rank);
+		return index < 0 ? -index - 1 : index;
+	}
+
+	//Returns the newest element whose rank is lower than the specified rank.
+	@Nullable
+	private MCVersion elementBefore(int rank) {
+		final int index = indexOfRank(rank);
+		return index == 0 ? null : elements[index - 1];
+	}
+
+	//Returns the oldest element whose rank is not lower than the specified rank.
+	@Nullable
+	private MCVersion elementFrom(int rank) {
+		final int index = indexOfRank(rank);
+		return index == elements.length ? null : elements[index];
+	}
+
+	private MCVersionSet subSet(int fromRank, int toRank) {
+		final int fromIndex = indexOfRank(fromRank);
+		final int toIndex = Math.max(fromIndex, indexOfRank(toRank));
+		final long[] subSet = new long[words.length];
+
+		for (int i = fromIndex; i < toIndex; i++) {
+			final int ordinal = elements[i].ordinal();
+			subSet[ordinal >>> 6] |= 1L << ordinal;
+		}
+
+		return new MCVersionSet(snapshot, subSet, Arrays.copyOfRange(ranks, fromIndex, toIndex));
+	}
+
+	private static int[] sortedRanks(MCVersionRegistry.Snapshot snapshot, long[] words) {
+		int size = 0;
+
+		for (long word : words) {
+			size += Long.bitCount(word);
+		}
+
+		final int[] ranks = new int[size];
+		int index = 0;
+
+		for (int i = 0; i < words.length; i++) {
+			for (long word = words[i]; word != 0L; word &= word - 1L) {
+				ranks[index++] = snapshot.rank((i << 6) + Long.numberOfTrailingZeros(word));
+			}
+		}
+
+		Arrays.sort(ranks);
+		return ranks;
+	}
+}
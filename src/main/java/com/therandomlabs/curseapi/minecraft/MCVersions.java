@@ -23,10 +23,14 @@
 
 package com.therandomlabs.curseapi.minecraft;
 
-import java.util.SortedSet;
+import java.util.NavigableSet;
 import java.util.TreeSet;
 import java.util.stream.Stream;
 
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 /**
  * Contains {@link MCVersion} constants that represent all versions of Minecraft supported
  * by CurseForge.
@@ -411,11 +415,24 @@ public final class MCVersions {
 	/**
 	 * Returns all Minecraft versions supported by CurseForge.
 	 *
-	 * @return a mutable {@link SortedSet} containing {@link MCVersion} instances that
+	 * @return an immutable {@link NavigableSet} containing {@link MCVersion} instances that
+	 * represent all Minecraft versions supported by CurseForge.
+	 * @see #copyAll()
+	 * @see MCVersionSet#all()
+	 */
+	public static NavigableSet<MCVersion> getAll() {
+		return MCVersionRegistry.sortedVersions();
+	}
+
+	/**
+	 * Returns a mutable copy of all Minecraft versions supported by CurseForge.
+	 *
+	 * @return a mutable {@link NavigableSet} containing {@link MCVersion} instances that
 	 * represent all Minecraft versions supported by CurseForge.
+	 * @see #getAll()
 	 */
-	public static SortedSet<MCVersion> getAll() {
-		return new TreeSet<>(ForgeSvcMinecraftProvider.versions);
+	public static NavigableSet<MCVersion> copyAll() {
+		return new TreeSet<>(getAll());
 	}
 
 	/**
@@ -424,71 +441,133 @@ public final class MCVersions {
 	 * @return a {@link Stream} for all Minecraft versions supported by CurseForge.
 	 */
 	public static Stream<MCVersion> streamAll() {
-		return ForgeSvcMinecraftProvider.versions.stream();
+		return MCVersionRegistry.sortedVersions().stream();
 	}
 
 	/**
 	 * Returns the {@link MCVersion} instance for the specified version string.
 	 *
 	 * @param versionString a Minecraft version string.
-	 * @return the {@link MCVersion} instance for the specified version string.
+	 * @return the {@link MCVersion} instance for the specified version string,
+	 * or {@link #UNKNOWN} if there is none.
 	 */
 	public static MCVersion get(String versionString) {
+		return get((CharSequence) versionString);
+	}
+
+	/**
+	 * Returns the {@link MCVersion} instance for the specified version string.
+	 * Version strings such as {@code 1.12.2} and {@code 1.15-Snapshot} are parsed directly
+	 * from the {@link CharSequence}, so the version string does not need to be converted to
+	 * a {@link String}.
+	 *
+	 * @param versionString a Minecraft version string.
+	 * @return the {@link MCVersion} instance for the specified version string,
+	 * or {@link #UNKNOWN} if there is none.
+	 */
+	public static MCVersion get(CharSequence versionString) {
 		if (versionString == null) {
 			return UNKNOWN;
 		}
 
-		for (MCVersion version : ForgeSvcMinecraftProvider.versions) {
-			if (versionString.equals(version.versionString())) {
-				return version;
-			}
-		}
+		final MCVersion version = MCVersionRegistry.get(versionString);
+		return version == null ? UNKNOWN : version;
+	}
+
+	/**
+	 * Registers a version of Minecraft that is newer than all registered versions of Minecraft,
+	 * e.g. a release that CurseForge has not yet acknowledged, so that it can be used without a
+	 * library upgrade. The new version is still older than the modloader pseudo-versions
+	 * such as {@link #FORGE} unless it does not belong to a version group itself.
+	 * If a version with the same version string is already registered, it is returned instead.
+	 * <p>
+	 * Registering a version does not change the sort indexes of any other version, and the
+	 * new version becomes visible to all threads atomically.
+	 *
+	 * @param versionString a Minecraft version string.
+	 * @return the registered {@link MCVersion} instance for the specified version string.
+	 */
+	public static MCVersion register(String versionString) {
+		return register(versionString, null, true);
+	}
+
+	/**
+	 * Registers a version of Minecraft that directly precedes the specified version, e.g. the
+	 * snapshots of an upcoming release. If a version with the same version string is already
+	 * registered, it is returned instead.
+	 *
+	 * @param nextVersion a registered {@link MCVersion}.
+	 * @param versionString a Minecraft version string.
+	 * @return the registered {@link MCVersion} instance for the specified version string.
+	 * @throws IllegalArgumentException if {@code nextVersion} is not registered.
+	 * @see #register(String)
+	 */
+	public static MCVersion registerBefore(MCVersion nextVersion, String versionString) {
+		Preconditions.checkNotNull(nextVersion, "nextVersion should not be null");
+		return register(versionString, nextVersion, false);
+	}
 
-		return UNKNOWN;
+	/**
+	 * Registers a version of Minecraft that directly follows the specified version.
+	 * If a version with the same version string is already registered, it is returned instead.
+	 *
+	 * @param previousVersion a registered {@link MCVersion}.
+	 * @param versionString a Minecraft version string.
+	 * @return the registered {@link MCVersion} instance for the specified version string.
+	 * @throws IllegalArgumentException if {@code previousVersion} is not registered.
+	 * @see #register(String)
+	 */
+	public static MCVersion registerAfter(MCVersion previousVersion, String versionString) {
+		Preconditions.checkNotNull(previousVersion, "previousVersion should not be null");
+		return register(versionString, previousVersion, true);
 	}
 
 	static void initialize() {
 		//This is called by ForgeSVCMinecraftProvider.
 	}
 
+	//The Minecraft versions API often takes some time to acknowledge newer versions of Minecraft,
+	//and local MCVersion instances are used if the Minecraft versions could not be retrieved,
+	//so versions that are not already registered are registered as the newest version.
 	private static MCVersion initialize(String versionString) {
-		if (ForgeSvcMinecraftProvider.failedToRetrieveVersions) {
-			return create(-1, versionString);
-		}
-
-		for (MCVersion version : ForgeSvcMinecraftProvider.versions) {
-			if (versionString.equals(version.versionString())) {
-				return version;
-			}
-		}
+		return register(versionString);
+	}
 
-		//The Minecraft versions API often takes some time to acknowledge newer versions of
-		//Minecraft.
-		return create(-1, versionString);
+	//This method is used to create snapshot versions, which are not provided in the Minecraft
+	//versions API.
+	private static MCVersion create(String nextVersionString, String versionString) {
+		final MCVersion nextVersion = MCVersionRegistry.get(nextVersionString);
+		return nextVersion == null ?
+				register(versionString) : registerBefore(nextVersion, versionString);
 	}
 
-	//Snapshots and modloaders are also not provided in the Minecraft versions API.
-	private static MCVersion create(int index, String versionString) {
-		if (index == -1) {
-			index = ForgeSvcMinecraftProvider.versions.size() * 2;
-		}
+	private static MCVersion register(
+			String versionString, @Nullable MCVersion neighbour, boolean after
+	) {
+		Preconditions.checkArgument(
+				!Strings.isNullOrEmpty(versionString), "versionString should not be empty"
+		);
 
-		final MCVersion version = new MCVersion(index, versionString);
-		//Initialize MCVersion#versionGroup so that the MCVersion adds itself to the version group.
-		version.versionGroup();
-		ForgeSvcMinecraftProvider.versions.add(version);
-		return version;
-	}
+		final MCVersion registered = MCVersionRegistry.get(versionString);
 
-	//This method is used to create snapshot versions.
-	private static MCVersion create(String nextVersionString, String versionString) {
-		if (ForgeSvcMinecraftProvider.failedToRetrieveVersions) {
-			return create(-1, versionString);
+		if (registered != null) {
+			return registered;
 		}
 
-		final MCVersion nextVersion = get(nextVersionString);
-		//Since sort indexes are normally separated by 2,
-		//there should be a gap that this version can fit in.
-		return create(nextVersion.isUnknown() ? -1 : nextVersion.getSortIndex() - 1, versionString);
+		//An unregistered neighbour may be equal to a registered version.
+		final MCVersion registeredNeighbour =
+				neighbour == null ? null : MCVersionRegistry.get(neighbour.versionString());
+		Preconditions.checkArgument(
+				neighbour == null || registeredNeighbour != null,
+				"neighbour should be registered: %s", neighbour
+		);
+
+		//The initial sort index is only used to compare the new version with versions in older
+		//snapshots of the registry.
+		final long initialSortIndex = registeredNeighbour == null ?
+				Long.MAX_VALUE : registeredNeighbour.getSortIndex();
+		return MCVersionRegistry.insert(
+				new MCVersion(initialSortIndex, versionString), registeredNeighbour, after
+		);
 	}
 }
@@ -0,0 +1,243 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.file.CurseFile;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A process-wide cache of {@link CurseFile}s that is shared by all {@link CurseModpack}s.
+ * {@link CurseModpack#files()} and {@link CurseModpack#files(ResolveOptions)} consult this cache
+ * before retrieving files from CurseForge, and files that do not exist are also cached so that
+ * they are not requested again.
+ * <p>
+ * Optionally, resolved files can also be persisted to a file store on disk so that they survive
+ * restarts.
+ */
+public final class CurseFileCache {
+	/**
+	 * The default maximum number of files that are cached.
+	 */
+	public static final long DEFAULT_MAXIMUM_SIZE = 10_000L;
+
+	private static long maximumSize = DEFAULT_MAXIMUM_SIZE;
+	@Nullable
+	private static Duration timeToLive;
+	//Keys are packed project and file IDs. Files that do not exist are cached as
+	//Optional#empty().
+	private static volatile Cache<Long, Optional<CurseFile>> cache = build();
+	@Nullable
+	private static Path persistentStorePath;
+	@Nullable
+	private static volatile CurseFileStore persistentStore;
+
+	private CurseFileCache() {}
+
+	/**
+	 * Returns the maximum number of files that are cached.
+	 *
+	 * @return the maximum number of files that are cached.
+	 */
+	public static synchronized long maximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * Sets the maximum number of files that are cached.
+	 * Once this number is exceeded, the least recently used files are evicted.
+	 * Calling this method clears the cache and its statistics.
+	 *
+	 * @param maximumSize a non-negative number, or {@code 0} if files should not be cached.
+	 */
+	public static synchronized void maximumSize(long maximumSize) {
+		Preconditions.checkArgument(maximumSize >= 0L, "maximumSize should not be negative");
+		CurseFileCache.maximumSize = maximumSize;
+		cache = build();
+	}
+
+	/**
+	 * Returns the amount of time after which cached files are evicted.
+	 *
+	 * @return an {@link Optional} containing the amount of time after which cached files are
+	 * evicted, or {@link Optional#empty()} if files are only evicted when the cache is full.
+	 */
+	public static synchronized Optional<Duration> timeToLive() {
+		return Optional.ofNullable(timeToLive);
+	}
+
+	/**
+	 * Sets the amount of time after which cached files are evicted.
+	 * This also applies to files that do not exist.
+	 * Calling this method clears the cache and its statistics.
+	 *
+	 * @param timeToLive a {@link Duration}, or {@code null} if files should only be evicted
+	 * when the cache is full.
+	 */
+	public static synchronized void timeToLive(@Nullable Duration timeToLive) {
+		Preconditions.checkArgument(
+				timeToLive == null || !timeToLive.isNegative(), "timeToLive should not be negative"
+		);
+		CurseFileCache.timeToLive = timeToLive;
+		cache = build();
+	}
+
+	/**
+	 * Returns the path to the file store in which resolved files are persisted.
+	 *
+	 * @return an {@link Optional} containing the path to the file store in which resolved files
+	 * are persisted, or {@link Optional#empty()} if resolved files are not persisted.
+	 */
+	public static synchronized Optional<Path> persistentStore() {
+		return Optional.ofNullable(persistentStorePath);
+	}
+
+	/**
+	 * Sets the path to the file store in which resolved files are persisted.
+	 * The file store is an append-only log that is read before CurseForge is queried, so
+	 * resolving the files of a familiar modpack after a restart requires no requests.
+	 * Because CurseForge file IDs are immutable, persisted files never expire, and files
+	 * that do not exist are not persisted.
+	 * A file store can only be used by one process at a time; if it is in use or cannot be
+	 * opened, a warning is logged and resolved files are not persisted.
+	 *
+	 * @param path a {@link Path} to a file, or {@code null} if resolved files should not be
+	 * persisted.
+	 */
+	public static synchronized void persistentStore(@Nullable Path path) {
+		final CurseFileStore oldStore = persistentStore;
+
+		if (oldStore != null) {
+			try {
+				oldStore.close();
+			} catch (IOException ex) {
+				LoggerFactory.getLogger(CurseFileCache.class).warn(
+						"Failed to close file store: " + persistentStorePath, ex
+				);
+			}
+		}
+
+		persistentStorePath = path;
+		persistentStore = path == null ? null : CurseFileStore.open(path);
+	}
+
+	/**
+	 * Returns the number of files that are currently cached, including files that do not exist.
+	 *
+	 * @return the number of files that are currently cached.
+	 */
+	public static long size() {
+		return cache.size();
+	}
+
+	/**
+	 * Returns this cache's hit, miss and eviction statistics.
+	 *
+	 * @return a {@link CacheStats}.
+	 */
+	public static CacheStats stats() {
+		return cache.stats();
+	}
+
+	/**
+	 * Evicts all files that are cached in memory.
+	 * Files in the {@link #persistentStore()} are not removed.
+	 */
+	public static void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	//This method is called by FileResolver.
+	//null is returned if the file is not cached or is known not to exist.
+	@Nullable
+	static CurseFile getIfPresent(BasicCurseFile file) {
+		final long key = PackedFiles.pack(file.projectID(), file.id());
+		final Optional<CurseFile> cachedFile = cache.getIfPresent(key);
+
+		if (cachedFile != null) {
+			return cachedFile.orElse(null);
+		}
+
+		final CurseFileStore store = persistentStore;
+
+		if (store == null) {
+			return null;
+		}
+
+		final CurseFile storedFile = store.get(file.projectID(), file.id());
+
+		if (storedFile != null) {
+			cache.put(key, Optional.of(storedFile));
+		}
+
+		return storedFile;
+	}
+
+	//This method is called by FileResolver.
+	//The cache is read through its map view so that the statistics are not recorded twice for
+	//files that getIfPresent has already looked up.
+	static boolean isKnownMissing(BasicCurseFile file) {
+		final Optional<CurseFile> cachedFile =
+				cache.asMap().get(PackedFiles.pack(file.projectID(), file.id()));
+		return cachedFile != null && !cachedFile.isPresent();
+	}
+
+	//This method is called by FileResolver.
+	static void put(CurseFile file) {
+		cache.put(PackedFiles.pack(file.projectID(), file.id()), Optional.of(file));
+		final CurseFileStore store = persistentStore;
+
+		if (store != null) {
+			store.put(file);
+		}
+	}
+
+	//This method is called by FileResolver.
+	static void putMissing(BasicCurseFile file) {
+		cache.put(PackedFiles.pack(file.projectID(), file.id()), Optional.empty());
+	}
+
+	private static Cache<Long, Optional<CurseFile>> build() {
+		final CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().
+				maximumSize(maximumSize).
+				recordStats();
+
+		if (timeToLive != null) {
+			builder.expireAfterWrite(timeToLive.toNanos(), TimeUnit.NANOSECONDS);
+		}
+
+		return builder.build();
+	}
+}
@@ -0,0 +1,301 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.base.Preconditions;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonDataException;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.util.MoshiUtils;
+import okio.Buffer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+//An append-only log of CurseFiles serialized as JSON, which lets resolved files survive
+//restarts. CurseForge file IDs are immutable, so records never need to be invalidated.
+//The log starts with a header containing a magic number and a format version, followed by
+//records that each consist of a project ID, a file ID, the length of the name of the CurseFile
+//implementation that the JSON is deserialized into, the length of the JSON, the class name and
+//the JSON itself. Each record names its own class because files may be resolved by different
+//providers. The offsets of the records are indexed in memory when the log is opened, and a
+//partially written record at the end of the log is truncated.
+final class CurseFileStore implements Closeable {
+	private static final int MAGIC = 0x43414D46;
+	//Logs written in any other format are cleared.
+	private static final int FORMAT_VERSION = 2;
+	private static final int HEADER_SIZE = 8;
+	private static final int RECORD_HEADER_SIZE = 16;
+
+	private static final Logger logger = LoggerFactory.getLogger(CurseFileStore.class);
+
+	private final Path path;
+	private final FileChannel channel;
+	private final FileLock lock;
+	private final Map<Long, Long> offsets = new ConcurrentHashMap<>();
+	//Keyed by class name.
+	private final Map<String, JsonAdapter<CurseFile>> adapters = new ConcurrentHashMap<>();
+	private long size;
+
+	private CurseFileStore(Path path, FileChannel channel, FileLock lock) {
+		this.path = path;
+		this.channel = channel;
+		this.lock = lock;
+	}
+
+	@Nullable
+	CurseFile get(int projectID, int fileID) {
+		final Long offset = offsets.get(PackedFiles.pack(projectID, fileID));
+
+		if (offset == null) {
+			return null;
+		}
+
+		try {
+			final ByteBuffer header = read(offset, RECORD_HEADER_SIZE);
+			final int classNameLength = header.getInt(8);
+			final String className = new String(
+					read(offset + RECORD_HEADER_SIZE, classNameLength).array(),
+					StandardCharsets.UTF_8
+			);
+			final ByteBuffer json =
+					read(offset + RECORD_HEADER_SIZE + classNameLength, header.getInt(12));
+			final CurseFile file =
+					adapter(className).fromJson(new Buffer().write(json.array()));
+
+			//The CurseFile implementation may not serialize its project ID.
+			if (file != null && file.projectID() == projectID && file.id() == fileID) {
+				return file;
+			}
+		} catch (IOException | JsonDataException | ClassNotFoundException |
+				IllegalArgumentException ex) {
+			logger.warn("Failed to read file " + projectID + '/' + fileID + " from " + path, ex);
+		}
+
+		return null;
+	}
+
+	synchronized void put(CurseFile file) {
+		final long key = PackedFiles.pack(file.projectID(), file.id());
+
+		if (offsets.containsKey(key)) {
+			return;
+		}
+
+		try {
+			if (size == 0L) {
+				writeHeader();
+			}
+
+			final String className = file.getClass().getName();
+			final byte[] classNameBytes = className.getBytes(StandardCharsets.UTF_8);
+			final byte[] json = adapter(className).toJson(file).getBytes(StandardCharsets.UTF_8);
+			final int length = RECORD_HEADER_SIZE + classNameBytes.length + json.length;
+			final ByteBuffer record = ByteBuffer.allocate(length).
+					putInt(file.projectID()).
+					putInt(file.id()).
+					putInt(classNameBytes.length).
+					putInt(json.length).
+					put(classNameBytes).
+					put(json);
+			record.flip();
+			write(size, record);
+
+			offsets.put(key, size);
+			size += record.capacity();
+		} catch (IOException | ClassNotFoundException | IllegalArgumentException ex) {
+			logger.warn("Failed to write file " + file + " to " + path, ex);
+		}
+	}
+
+	int size() {
+		return offsets.size();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			lock.release();
+		} finally {
+			channel.close();
+		}
+	}
+
+	//Returns null if the log is in use or cannot be opened.
+	@Nullable
+	static CurseFileStore open(Path path) {
+		FileChannel channel = null;
+
+		try {
+			final Path parent = path.toAbsolutePath().getParent();
+
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+
+			channel = FileChannel.open(
+					path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+					StandardOpenOption.WRITE
+			);
+			final FileLock lock = channel.tryLock();
+
+			if (lock == null) {
+				logger.warn("File store is in use by another process: {}", path);
+				channel.close();
+				return null;
+			}
+
+			final CurseFileStore store = new CurseFileStore(path, channel, lock);
+			store.load();
+			return store;
+		} catch (IOException | OverlappingFileLockException ex) {
+			logger.warn("Failed to open file store: " + path, ex);
+
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException closeException) {
+					ex.addSuppressed(closeException);
+				}
+			}
+
+			return null;
+		}
+	}
+
+	private void load() throws IOException {
+		final long channelSize = channel.size();
+
+		if (channelSize == 0L) {
+			return;
+		}
+
+		try {
+			readHeader(channelSize);
+		} catch (IOException ex) {
+			//The log is only a cache, so it is cleared if it was written by an incompatible
+			//version of CurseAPI.
+			logger.warn("Clearing invalid file store: " + path, ex);
+			channel.truncate(0L);
+			return;
+		}
+
+		long position = HEADER_SIZE;
+
+		while (position + RECORD_HEADER_SIZE <= channelSize) {
+			final ByteBuffer header = read(position, RECORD_HEADER_SIZE);
+			final int classNameLength = header.getInt(8);
+			final int jsonLength = header.getInt(12);
+			final long end = position + RECORD_HEADER_SIZE + classNameLength + jsonLength;
+
+			if (classNameLength <= 0 || jsonLength < 0 || end > channelSize) {
+				break;
+			}
+
+			offsets.put(PackedFiles.pack(header.getInt(0), header.getInt(4)), position);
+			position = end;
+		}
+
+		if (position < channelSize) {
+			logger.warn("Truncating partially written record in file store: {}", path);
+			channel.truncate(position);
+		}
+
+		size = position;
+	}
+
+	private void readHeader(long channelSize) throws IOException {
+		if (channelSize < HEADER_SIZE) {
+			throw new EOFException("Truncated header");
+		}
+
+		final ByteBuffer header = read(0L, HEADER_SIZE);
+
+		if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+			throw new IOException("Invalid header");
+		}
+	}
+
+	private void writeHeader() throws IOException {
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).
+				putInt(MAGIC).
+				putInt(FORMAT_VERSION);
+		header.flip();
+		write(0L, header);
+		size = HEADER_SIZE;
+	}
+
+	//Moshi throws an IllegalArgumentException if the class cannot be serialized.
+	@SuppressWarnings("unchecked")
+	private JsonAdapter<CurseFile> adapter(String className) throws ClassNotFoundException {
+		final JsonAdapter<CurseFile> adapter = adapters.get(className);
+
+		if (adapter != null) {
+			return adapter;
+		}
+
+		final Class<?> fileClass = Class.forName(className);
+		Preconditions.checkArgument(
+				CurseFile.class.isAssignableFrom(fileClass), "Not a CurseFile: %s", className
+		);
+
+		final JsonAdapter<CurseFile> newAdapter =
+				(JsonAdapter<CurseFile>) MoshiUtils.get().adapter(fileClass);
+		adapters.put(className, newAdapter);
+		return newAdapter;
+	}
+
+	private ByteBuffer read(long position, int length) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) == -1) {
+				throw new EOFException("Unexpected end of file store: " + path);
+			}
+		}
+
+		buffer.flip();
+		return buffer;
+	}
+
+	private void write(long position, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, position + buffer.position());
+		}
+	}
+}
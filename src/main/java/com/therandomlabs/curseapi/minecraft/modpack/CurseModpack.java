@@ -23,20 +23,26 @@
 
 package com.therandomlabs.curseapi.minecraft.modpack;
 
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Collection;
 
+import com.google.common.base.Preconditions;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.file.BasicCurseFile;
 import com.therandomlabs.curseapi.file.CurseFile;
 import com.therandomlabs.curseapi.file.CurseFiles;
 import com.therandomlabs.curseapi.minecraft.MCVersion;
-import com.therandomlabs.curseapi.util.MoshiUtils;
 
 /**
  * Represents a CurseForge Minecraft modpack.
  */
 public interface CurseModpack {
+	/**
+	 * The name of the manifest file in CurseForge modpack ZIP files.
+	 */
+	String MANIFEST_NAME = "manifest.json";
+
 	/**
 	 * Returns this modpack's Minecraft version.
 	 *
@@ -123,6 +129,8 @@ public interface CurseModpack {
 
 	/**
 	 * Returns this modpack's files.
+	 * Files are resolved using the default {@link ResolveOptions}, and they are only
+	 * retrieved again after this modpack's files are changed using {@link #files(Collection)}.
 	 *
 	 * @return a {@link CurseFiles} containing {@link CurseFile} instances that represent
 	 * this modpack's files. Changes to this list are <strong>not</strong> reflected in this
@@ -131,6 +139,25 @@ public interface CurseModpack {
 	 */
 	CurseFiles<CurseFile> files() throws CurseException;
 
+	/**
+	 * Returns this modpack's files, which are resolved according to the specified
+	 * {@link ResolveOptions}.
+	 * Unlike {@link #files()}, this method does not reuse files previously resolved for this
+	 * modpack, although files in the {@link CurseFileCache} are not retrieved again.
+	 * The default implementation resolves the files returned by {@link #basicFiles()}.
+	 *
+	 * @param options a {@link ResolveOptions} that controls the concurrency, rate limit
+	 * and timeout of the resolution.
+	 * @return a {@link CurseFiles} containing {@link CurseFile} instances that represent
+	 * this modpack's files. Changes to this list are <strong>not</strong> reflected in this
+	 * {@link CurseModpack} instance.
+	 * @throws CurseException if a file cannot be resolved or the timeout elapses.
+	 */
+	default CurseFiles<CurseFile> files(ResolveOptions options) throws CurseException {
+		Preconditions.checkNotNull(options, "options should not be null");
+		return FileResolver.resolve(basicFiles(), options);
+	}
+
 	/**
 	 * Sets this modpack's files.
 	 *
@@ -163,13 +190,8 @@ public interface CurseModpack {
 	 * @throws CurseException if an error occurs.
 	 */
 	static CurseModpack fromJSON(String json) throws CurseException {
-		final DefaultCurseModpack modpack = MoshiUtils.fromJSON(json, DefaultCurseModpack.class);
-
-		if (!modpack.isValid()) {
-			throw new CurseException("Invalid modpack manifest: " + json);
-		}
-
-		return modpack;
+		Preconditions.checkNotNull(json, "json should not be null");
+		return DefaultCurseModpack.fromJSON(json);
 	}
 
 	/**
@@ -180,13 +202,37 @@ public interface CurseModpack {
 	 * @throws CurseException if an error occurs.
 	 */
 	static CurseModpack fromJSON(Path json) throws CurseException {
-		final DefaultCurseModpack modpack = MoshiUtils.fromJSON(json, DefaultCurseModpack.class);
+		Preconditions.checkNotNull(json, "json should not be null");
+		return DefaultCurseModpack.fromJSON(json);
+	}
 
-		if (!modpack.isValid()) {
-			throw new CurseException("Invalid modpack manifest: " + json);
-		}
+	/**
+	 * Parses a JSON string read from the specified {@link InputStream} to create a
+	 * {@link CurseModpack} instance.
+	 * The JSON is parsed as it is read, so it is never buffered in its entirety.
+	 * The specified {@link InputStream} is not closed.
+	 *
+	 * @param json an {@link InputStream} that contains a JSON string.
+	 * @return a {@link CurseModpack} instance.
+	 * @throws CurseException if an error occurs.
+	 */
+	static CurseModpack fromJSON(InputStream json) throws CurseException {
+		Preconditions.checkNotNull(json, "json should not be null");
+		return DefaultCurseModpack.fromJSON(json, "stream");
+	}
 
-		return modpack;
+	/**
+	 * Parses the {@code manifest.json} in the specified modpack ZIP file to create a
+	 * {@link CurseModpack} instance.
+	 * The manifest is parsed as it is read from the ZIP file, so it is never extracted.
+	 *
+	 * @param zip a {@link Path} to a modpack ZIP file.
+	 * @return a {@link CurseModpack} instance.
+	 * @throws CurseException if an error occurs.
+	 */
+	static CurseModpack fromZip(Path zip) throws CurseException {
+		Preconditions.checkNotNull(zip, "zip should not be null");
+		return DefaultCurseModpack.fromZip(zip);
 	}
 
 	/**
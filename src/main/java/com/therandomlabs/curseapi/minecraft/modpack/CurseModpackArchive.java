@@ -0,0 +1,262 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.therandomlabs.curseapi.CurseException;
+
+/**
+ * Represents a CurseForge modpack ZIP file, which contains a modpack manifest and an overrides
+ * directory containing files such as configs and scripts.
+ * <p>
+ * The ZIP file is opened once as a {@link FileSystem}, and files are read from it as they are
+ * needed, so the ZIP file is never extracted in its entirety to a temporary location.
+ * A {@link CurseModpackArchive} should be closed once it is no longer needed.
+ */
+public final class CurseModpackArchive implements Closeable {
+	/**
+	 * The name of the overrides directory if the manifest does not specify one.
+	 */
+	public static final String DEFAULT_OVERRIDES = "overrides";
+
+	/**
+	 * The name of the directory into which mods are downloaded by
+	 * {@link #install(Path, ModpackInstaller)}.
+	 */
+	public static final String MODS_DIRECTORY = "mods";
+
+	private final Path zip;
+	private final FileSystem fileSystem;
+	private final DefaultCurseModpack modpack;
+
+	private CurseModpackArchive(Path zip, FileSystem fileSystem, DefaultCurseModpack modpack) {
+		this.zip = zip;
+		this.fileSystem = fileSystem;
+		this.modpack = modpack;
+	}
+
+	/**
+	 * Returns the modpack described by this archive's manifest.
+	 *
+	 * @return the {@link CurseModpack} described by this archive's manifest.
+	 */
+	public CurseModpack modpack() {
+		return modpack;
+	}
+
+	/**
+	 * Returns the name of this archive's overrides directory.
+	 *
+	 * @return the name of this archive's overrides directory.
+	 */
+	public String overrides() {
+		return modpack.overridesDirectory();
+	}
+
+	/**
+	 * Extracts the contents of this archive's overrides directory into the specified directory.
+	 * Existing files are replaced.
+	 *
+	 * @param directory a {@link Path} to a directory.
+	 * @return a {@link List} containing the {@link Path}s to the extracted files.
+	 * @throws CurseException if an error occurs.
+	 */
+	public List<Path> extractOverrides(Path directory) throws CurseException {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+
+		final Path overrides = fileSystem.getPath("/", overrides());
+		final List<Path> paths = new ArrayList<>();
+
+		if (!Files.isDirectory(overrides)) {
+			return paths;
+		}
+
+		final Path normalizedDirectory = directory.toAbsolutePath().normalize();
+
+		try (Stream<Path> files = Files.walk(overrides)) {
+			final Iterator<Path> iterator = files.filter(Files::isRegularFile).iterator();
+
+			while (iterator.hasNext()) {
+				final Path file = iterator.next();
+				//Paths in the ZIP file system cannot be resolved against other file systems
+				//directly, so the relative path is converted to a string.
+				final Path path = normalizedDirectory.resolve(
+						overrides.relativize(file).toString()
+				).normalize();
+
+				//Entry names come from the ZIP file, so we make sure that they cannot be used to
+				//write outside of the directory.
+				if (!path.startsWith(normalizedDirectory)) {
+					throw new CurseException("Invalid override path: " + file);
+				}
+
+				Files.createDirectories(path.getParent());
+				Files.copy(file, path, StandardCopyOption.REPLACE_EXISTING);
+				paths.add(path);
+			}
+		} catch (IOException ex) {
+			throw new CurseException("Failed to extract overrides from: " + zip, ex);
+		}
+
+		return paths;
+	}
+
+	/**
+	 * Installs this modpack into the specified directory.
+	 * This is equivalent to calling {@link #install(Path, ModpackInstaller)} with a
+	 * {@link ModpackInstaller} that downloads files into the {@code mods} directory.
+	 *
+	 * @param directory a {@link Path} to a directory.
+	 * @return a {@link List} containing the {@link Path}s to the installed files.
+	 * @throws CurseException if an error occurs.
+	 */
+	public List<Path> install(Path directory) throws CurseException {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		return install(
+				directory, new ModpackInstaller(modpack, directory.resolve(MODS_DIRECTORY))
+		);
+	}
+
+	/**
+	 * Installs this modpack into the specified directory by extracting the overrides into the
+	 * directory while the specified {@link ModpackInstaller} downloads the modpack's files.
+	 *
+	 * @param directory a {@link Path} to a directory.
+	 * @param installer a {@link ModpackInstaller} for this archive's modpack.
+	 * @return a {@link List} containing the {@link Path}s to the installed files.
+	 * @throws CurseException if an error occurs.
+	 */
+	public List<Path> install(Path directory, ModpackInstaller installer) throws CurseException {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		Preconditions.checkNotNull(installer, "installer should not be null");
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor(
+				new ThreadFactoryBuilder().
+						setNameFormat("CurseAPI-Minecraft overrides extraction").
+						setDaemon(true).
+						build()
+		);
+
+		try {
+			final CompletableFuture<List<Path>> overrides = CompletableFuture.supplyAsync(() -> {
+				try {
+					return extractOverrides(directory);
+				} catch (CurseException ex) {
+					throw new CompletionException(ex);
+				}
+			}, executor);
+
+			final List<Path> paths = new ArrayList<>(installer.install());
+			paths.addAll(overrides.get());
+			return paths;
+		} catch (ExecutionException ex) {
+			final Throwable cause = ex.getCause();
+
+			if (cause instanceof CurseException) {
+				throw (CurseException) cause;
+			}
+
+			throw new CurseException("Failed to extract overrides from: " + zip, cause);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CurseException("Interrupted while installing modpack: " + zip, ex);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Closes this archive's underlying ZIP file.
+	 *
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Override
+	public void close() throws IOException {
+		fileSystem.close();
+	}
+
+	/**
+	 * Opens the specified modpack ZIP file and parses its manifest.
+	 *
+	 * @param zip a {@link Path} to a modpack ZIP file.
+	 * @return a {@link CurseModpackArchive} instance.
+	 * @throws CurseException if an error occurs.
+	 */
+	public static CurseModpackArchive open(Path zip) throws CurseException {
+		Preconditions.checkNotNull(zip, "zip should not be null");
+
+		FileSystem fileSystem = null;
+
+		try {
+			fileSystem = FileSystems.newFileSystem(zip, (ClassLoader) null);
+			final Path manifest = fileSystem.getPath("/", CurseModpack.MANIFEST_NAME);
+
+			if (!Files.isRegularFile(manifest)) {
+				throw new CurseException("No modpack manifest found in ZIP file: " + zip);
+			}
+
+			try (InputStream json = Files.newInputStream(manifest)) {
+				final DefaultCurseModpack modpack = DefaultCurseModpack.fromJSON(
+						json, zip + "!/" + CurseModpack.MANIFEST_NAME
+				);
+				return new CurseModpackArchive(zip, fileSystem, modpack);
+			}
+		} catch (IOException ex) {
+			closeQuietly(fileSystem, ex);
+			throw new CurseException("Failed to read modpack ZIP file: " + zip, ex);
+		} catch (CurseException | RuntimeException ex) {
+			closeQuietly(fileSystem, ex);
+			throw ex;
+		}
+	}
+
+	private static void closeQuietly(FileSystem fileSystem, Exception ex) {
+		if (fileSystem != null) {
+			try {
+				fileSystem.close();
+			} catch (IOException closeException) {
+				ex.addSuppressed(closeException);
+			}
+		}
+	}
+}
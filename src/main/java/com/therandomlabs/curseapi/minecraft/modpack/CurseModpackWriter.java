@@ -0,0 +1,263 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.CurseException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Writes a {@link CurseModpack} to a modpack ZIP file.
+ * <p>
+ * The manifest, an optional {@code modlist.html} and the contents of an optional overrides
+ * directory are streamed straight into the ZIP file, so nothing is written to disk before the
+ * ZIP file is created. Entries are deflated on multiple threads, so writing large modpacks is
+ * not limited by the speed of a single thread.
+ */
+public final class CurseModpackWriter {
+	/**
+	 * The name of the mod list entry in modpack ZIP files.
+	 */
+	public static final String MOD_LIST_NAME = "modlist.html";
+
+	/**
+	 * The default compression level.
+	 */
+	public static final int DEFAULT_COMPRESSION_LEVEL = Deflater.DEFAULT_COMPRESSION;
+
+	/**
+	 * The default number of threads on which entries are deflated.
+	 */
+	public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+	private final CurseModpack modpack;
+	@Nullable
+	private Path overrides;
+	@Nullable
+	private String modList;
+	private int compressionLevel = DEFAULT_COMPRESSION_LEVEL;
+	private int parallelism = DEFAULT_PARALLELISM;
+
+	/**
+	 * Constructs a {@link CurseModpackWriter} that writes the specified modpack.
+	 *
+	 * @param modpack a {@link CurseModpack}.
+	 */
+	public CurseModpackWriter(CurseModpack modpack) {
+		Preconditions.checkNotNull(modpack, "modpack should not be null");
+		this.modpack = modpack;
+	}
+
+	/**
+	 * Returns the directory whose contents are written to the ZIP file's overrides directory.
+	 *
+	 * @return an {@link Optional} containing the {@link Path} to the directory whose contents
+	 * are written to the ZIP file's overrides directory, or {@link Optional#empty()} if no
+	 * overrides are written.
+	 */
+	public Optional<Path> overrides() {
+		return Optional.ofNullable(overrides);
+	}
+
+	/**
+	 * Sets the directory whose contents are written to the ZIP file's overrides directory.
+	 *
+	 * @param directory a {@link Path} to a directory, or {@code null} if no overrides should be
+	 * written.
+	 * @return this {@link CurseModpackWriter}.
+	 */
+	public CurseModpackWriter overrides(@Nullable Path directory) {
+		overrides = directory;
+		return this;
+	}
+
+	/**
+	 * Returns the HTML that is written to the ZIP file's {@code modlist.html}.
+	 *
+	 * @return an {@link Optional} containing the HTML that is written to the ZIP file's
+	 * {@code modlist.html}, or {@link Optional#empty()} if no mod list is written.
+	 */
+	public Optional<String> modList() {
+		return Optional.ofNullable(modList);
+	}
+
+	/**
+	 * Sets the HTML that is written to the ZIP file's {@code modlist.html}.
+	 *
+	 * @param html an HTML string, or {@code null} if no mod list should be written.
+	 * @return this {@link CurseModpackWriter}.
+	 */
+	public CurseModpackWriter modList(@Nullable String html) {
+		modList = html;
+		return this;
+	}
+
+	/**
+	 * Returns the compression level.
+	 *
+	 * @return the compression level.
+	 */
+	public int compressionLevel() {
+		return compressionLevel;
+	}
+
+	/**
+	 * Sets the compression level.
+	 *
+	 * @param level a compression level between {@code 0} and {@code 9}, or
+	 * {@link Deflater#DEFAULT_COMPRESSION}.
+	 * @return this {@link CurseModpackWriter}.
+	 */
+	public CurseModpackWriter compressionLevel(int level) {
+		Preconditions.checkArgument(
+				level == Deflater.DEFAULT_COMPRESSION ||
+						(level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION),
+				"level should be between 0 and 9"
+		);
+		compressionLevel = level;
+		return this;
+	}
+
+	/**
+	 * Returns the number of threads on which entries are deflated.
+	 *
+	 * @return the number of threads on which entries are deflated.
+	 */
+	public int parallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the number of threads on which entries are deflated.
+	 *
+	 * @param parallelism a positive integer.
+	 * @return this {@link CurseModpackWriter}.
+	 */
+	public CurseModpackWriter parallelism(int parallelism) {
+		Preconditions.checkArgument(parallelism > 0, "parallelism should be positive");
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Writes the modpack to a ZIP file at the specified {@link Path}.
+	 * If an error occurs, the partially written ZIP file is deleted.
+	 *
+	 * @param zip a {@link Path}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public void write(Path zip) throws CurseException {
+		Preconditions.checkNotNull(zip, "zip should not be null");
+
+		try (OutputStream stream = Files.newOutputStream(zip)) {
+			write(stream);
+		} catch (IOException | CurseException ex) {
+			try {
+				Files.deleteIfExists(zip);
+			} catch (IOException deleteException) {
+				ex.addSuppressed(deleteException);
+			}
+
+			if (ex instanceof CurseException) {
+				throw (CurseException) ex;
+			}
+
+			throw new CurseException("Failed to write modpack ZIP file: " + zip, ex);
+		}
+	}
+
+	/**
+	 * Writes the modpack as a ZIP file to the specified {@link OutputStream}.
+	 * The specified {@link OutputStream} is not closed.
+	 *
+	 * @param stream an {@link OutputStream}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public void write(OutputStream stream) throws CurseException {
+		Preconditions.checkNotNull(stream, "stream should not be null");
+
+		final byte[] manifest = modpack.toJSON().getBytes(StandardCharsets.UTF_8);
+		final long time = System.currentTimeMillis();
+
+		try (ParallelZipWriter writer =
+				new ParallelZipWriter(stream, compressionLevel, parallelism)) {
+			writer.write(
+					CurseModpack.MANIFEST_NAME, manifest.length, time,
+					() -> new ByteArrayInputStream(manifest)
+			);
+
+			if (modList != null) {
+				final byte[] html = modList.getBytes(StandardCharsets.UTF_8);
+				writer.write(
+						MOD_LIST_NAME, html.length, time, () -> new ByteArrayInputStream(html)
+				);
+			}
+
+			if (overrides != null) {
+				writeOverrides(writer);
+			}
+
+			writer.finish();
+		} catch (IOException ex) {
+			throw new CurseException("Failed to write modpack ZIP file", ex);
+		}
+	}
+
+	private void writeOverrides(ParallelZipWriter writer) throws IOException {
+		final String overridesName = modpack instanceof DefaultCurseModpack ?
+				((DefaultCurseModpack) modpack).overridesDirectory() :
+				CurseModpackArchive.DEFAULT_OVERRIDES;
+		final List<Path> files;
+
+		//Files are sorted so that the same directory always produces the same entry order.
+		try (Stream<Path> stream = Files.walk(overrides)) {
+			files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+
+		for (Path file : files) {
+			final StringBuilder name = new StringBuilder(overridesName);
+
+			for (Path element : overrides.relativize(file)) {
+				name.append('/').append(element);
+			}
+
+			writer.write(
+					name.toString(), Files.size(file), Files.getLastModifiedTime(file).toMillis(),
+					() -> Files.newInputStream(file)
+			);
+		}
+	}
+}
@@ -23,30 +23,35 @@
 
 package com.therandomlabs.curseapi.minecraft.modpack;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import com.google.common.base.Preconditions;
-import com.therandomlabs.curseapi.CurseAPI;
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonDataException;
+import com.squareup.moshi.JsonReader;
 import com.therandomlabs.curseapi.CurseException;
 import com.therandomlabs.curseapi.file.BasicCurseFile;
 import com.therandomlabs.curseapi.file.CurseFile;
 import com.therandomlabs.curseapi.file.CurseFiles;
 import com.therandomlabs.curseapi.minecraft.MCVersion;
 import com.therandomlabs.curseapi.minecraft.MCVersions;
-import com.therandomlabs.curseapi.util.MoshiUtils;
+import okio.Buffer;
+import okio.Okio;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-@SuppressWarnings({
-		"unused", "PMD.UnusedPrivateField", "squid:S1068", "FieldMayBeFinal"
-})
 final class DefaultCurseModpack implements CurseModpack {
 	//We set some default values so CurseModpack#createEmpty() is easier to use.
-	private static final class MinecraftInfo {
-		private static final class ModLoaderInfo {
+	static final class MinecraftInfo {
+		static final class ModLoaderInfo {
 			String id = "forge-14.23.5.2847";
 			boolean primary = true;
 		}
@@ -55,34 +60,47 @@ final class DefaultCurseModpack implements CurseModpack {
 		List<ModLoaderInfo> modLoaders = Collections.singletonList(new ModLoaderInfo());
 	}
 
-	private static final class FileInfo extends BasicCurseFile.Immutable {
-		boolean required = true;
+	static final class FileInfo extends BasicCurseFile.Immutable {
+		final boolean required;
 
-		FileInfo() {
-			super(CurseAPI.MIN_PROJECT_ID, CurseAPI.MIN_FILE_ID);
+		FileInfo(int projectID, int fileID, boolean required) {
+			super(projectID, fileID);
+			this.required = required;
 		}
 
-		FileInfo(BasicCurseFile file) {
-			super(file.projectID(), file.id());
+		static boolean isRequired(BasicCurseFile file) {
+			return !(file instanceof FileInfo) || ((FileInfo) file).required;
 		}
 	}
 
-	private MinecraftInfo minecraft = new MinecraftInfo();
-	private String manifestType = "minecraftModpack";
-	@SuppressWarnings("FieldCanBeLocal")
+	//Manifests are read and written using DefaultCurseModpackJsonAdapter instead of Moshi's
+	//reflective adapter.
+	private static final JsonAdapter<DefaultCurseModpack> ADAPTER =
+			new DefaultCurseModpackJsonAdapter().nullSafe();
+
+	MinecraftInfo minecraft = new MinecraftInfo();
+	String manifestType = "minecraftModpack";
 	int manifestVersion;
-	private String name = "";
-	private String version = "";
-	private String author = "";
-	//This field is used for Moshi so that it knows that files should be converted to
-	//BasicCurseFile.Immutables.
-	private List<FileInfo> files = new ArrayList<>();
-	//This field is used for everything else and uses the BasicCurseFile type.
+	String name = "";
+	String version = "";
+	String author = "";
+	@Nullable
+	String overrides;
+	//Files are stored in packedFiles until basicFiles() is called, after which basicCurseFiles
+	//is the source of truth because it may be modified by the user.
+	private PackedFiles packedFiles = new PackedFiles();
+	//The elements of this CurseFiles are FileInfos unless they are added by the user.
 	@Nullable
-	private transient CurseFiles<BasicCurseFile> basicCurseFiles;
+	private CurseFiles<BasicCurseFile> basicCurseFiles;
 	//This field is used for the implementation of CurseModpack#files().
 	@Nullable
-	private transient CurseFiles<CurseFile> curseFiles;
+	private CurseFiles<CurseFile> curseFiles;
+	//The serialized forms of this modpack and of its files are cached until they are changed.
+	//A null value means that the cached form is out of date.
+	@Nullable
+	private String json;
+	@Nullable
+	private String filesJSON;
 
 	@Override
 	public MCVersion mcVersion() {
@@ -93,6 +111,7 @@ final class DefaultCurseModpack implements CurseModpack {
 	public CurseModpack mcVersion(MCVersion version) {
 		Preconditions.checkNotNull(version, "version should not be null");
 		minecraft.version = version.versionString();
+		json = null;
 		return this;
 	}
 
@@ -116,6 +135,7 @@ final class DefaultCurseModpack implements CurseModpack {
 			forge.id = version;
 		}
 
+		json = null;
 		return this;
 	}
 
@@ -128,6 +148,7 @@ final class DefaultCurseModpack implements CurseModpack {
 	public CurseModpack name(String name) {
 		Preconditions.checkNotNull(name, "name should not be null");
 		this.name = name;
+		json = null;
 		return this;
 	}
 
@@ -140,6 +161,7 @@ final class DefaultCurseModpack implements CurseModpack {
 	public CurseModpack version(String version) {
 		Preconditions.checkNotNull(version, "version should not be null");
 		this.version = version;
+		json = null;
 		return this;
 	}
 
@@ -152,13 +174,14 @@ final class DefaultCurseModpack implements CurseModpack {
 	public CurseModpack author(String author) {
 		Preconditions.checkNotNull(author, "author should not be null");
 		this.author = author;
+		json = null;
 		return this;
 	}
 
 	@Override
 	public CurseFiles<BasicCurseFile> basicFiles() {
 		if (basicCurseFiles == null) {
-			basicCurseFiles = new CurseFiles<>(files);
+			basicCurseFiles = packedFiles.toCurseFiles();
 		}
 
 		return basicCurseFiles;
@@ -166,38 +189,154 @@ final class DefaultCurseModpack implements CurseModpack {
 
 	@Override
 	public CurseFiles<CurseFile> files() throws CurseException {
-		if (curseFiles == null) {
-			curseFiles = basicFiles().parallelMap(
-					BasicCurseFile::toCurseFile, CurseFiles.toCurseFiles()
-			);
-		}
+		return curseFiles == null ? files(new ResolveOptions()) : curseFiles.clone();
+	}
 
-		return curseFiles.clone();
+	@Override
+	public CurseFiles<CurseFile> files(ResolveOptions options) throws CurseException {
+		Preconditions.checkNotNull(options, "options should not be null");
+		//We avoid calling basicFiles() so that packedFiles remains the source of truth.
+		final CurseFiles<BasicCurseFile> basicFiles =
+				basicCurseFiles == null ? packedFiles.toCurseFiles() : basicCurseFiles;
+		final CurseFiles<CurseFile> files = FileResolver.resolve(basicFiles, options);
+		curseFiles = files;
+		return files.clone();
 	}
 
 	@Override
 	public CurseModpack files(Collection<? extends BasicCurseFile> files) {
 		Preconditions.checkNotNull(files, "files should not be null");
-		basicFiles().clear();
-		basicFiles().addAll(files);
-		curseFiles = null;
+
+		if (basicCurseFiles == null) {
+			packedFiles(PackedFiles.of(files));
+		} else {
+			//basicCurseFiles is refilled rather than replaced so that references to it that
+			//were previously returned by basicFiles() remain valid.
+			basicCurseFiles.clear();
+			basicCurseFiles.addAll(files);
+			curseFiles = null;
+			syncFiles();
+		}
+
 		return this;
 	}
 
 	@Override
 	public String toJSON() {
-		//Convert BasicCurseFiles in actualFiles to FileInfos in files.
-		files.clear();
-		basicFiles().stream().map(FileInfo::new).forEach(files::add);
-		return MoshiUtils.toJSON(this);
+		//The user may have modified basicCurseFiles since the last call.
+		syncFiles();
+
+		if (json == null) {
+			json = ADAPTER.toJson(this);
+		}
+
+		return json;
 	}
 
 	@Override
 	public void toJSON(Path path) throws CurseException {
-		MoshiUtils.toJSON(this, path);
+		try {
+			Files.write(path, toJSON().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException ex) {
+			throw new CurseException("Failed to write modpack manifest: " + path, ex);
+		}
+	}
+
+	//This method is called by DefaultCurseModpackJsonAdapter.
+	PackedFiles packedFiles() {
+		syncFiles();
+		return packedFiles;
+	}
+
+	//This method is called by DefaultCurseModpackJsonAdapter.
+	void packedFiles(PackedFiles files) {
+		packedFiles = files;
+		basicCurseFiles = null;
+		curseFiles = null;
+		json = null;
+		filesJSON = null;
+	}
+
+	//This method is called by DefaultCurseModpackJsonAdapter.
+	String filesJSON() throws IOException {
+		syncFiles();
+
+		if (filesJSON == null) {
+			filesJSON = DefaultCurseModpackJsonAdapter.filesJSON(packedFiles);
+		}
+
+		return filesJSON;
+	}
+
+	//Files are only repacked if basicCurseFiles has been modified, so that the cached files
+	//segment can be reused when only the other fields of this modpack have changed.
+	private void syncFiles() {
+		if (basicCurseFiles != null && !packedFiles.matches(basicCurseFiles)) {
+			packedFiles = PackedFiles.of(basicCurseFiles);
+			json = null;
+			filesJSON = null;
+		}
 	}
 
 	boolean isValid() {
 		return manifestVersion != 0;
 	}
+
+	//This method is called by CurseModpackArchive and CurseModpackWriter.
+	String overridesDirectory() {
+		return overrides == null ? CurseModpackArchive.DEFAULT_OVERRIDES : overrides;
+	}
+
+	//This method is called by CurseModpack.
+	static DefaultCurseModpack fromJSON(String json) throws CurseException {
+		return fromJSON(JsonReader.of(new Buffer().writeUtf8(json)), json);
+	}
+
+	//This method is called by CurseModpack.
+	static DefaultCurseModpack fromJSON(Path json) throws CurseException {
+		try (InputStream stream = Files.newInputStream(json)) {
+			return fromJSON(stream, json.toString());
+		} catch (IOException ex) {
+			throw new CurseException("Failed to read modpack manifest: " + json, ex);
+		}
+	}
+
+	static DefaultCurseModpack fromJSON(InputStream json, String source) throws CurseException {
+		//The JsonReader is not closed because that would close the InputStream.
+		return fromJSON(JsonReader.of(Okio.buffer(Okio.source(json))), source);
+	}
+
+	private static DefaultCurseModpack fromJSON(JsonReader reader, String source)
+			throws CurseException {
+		final DefaultCurseModpack modpack;
+
+		try {
+			modpack = ADAPTER.fromJson(reader);
+		} catch (IOException | JsonDataException ex) {
+			throw new CurseException("Failed to read modpack manifest: " + source, ex);
+		}
+
+		if (modpack == null || !modpack.isValid()) {
+			throw new CurseException("Invalid modpack manifest: " + source);
+		}
+
+		return modpack;
+	}
+
+	//This method is called by CurseModpack and ModpackScanner.
+	static DefaultCurseModpack fromZip(Path zip) throws CurseException {
+		try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+			final ZipEntry manifest = zipFile.getEntry(CurseModpack.MANIFEST_NAME);
+
+			if (manifest == null) {
+				throw new CurseException("No modpack manifest found in ZIP file: " + zip);
+			}
+
+			try (InputStream json = zipFile.getInputStream(manifest)) {
+				return fromJSON(json, zip + "!/" + CurseModpack.MANIFEST_NAME);
+			}
+		} catch (IOException ex) {
+			throw new CurseException("Failed to read modpack ZIP file: " + zip, ex);
+		}
+	}
 }
@@ -0,0 +1,279 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.squareup.moshi.JsonAdapter;
+import com.squareup.moshi.JsonReader;
+import com.squareup.moshi.JsonWriter;
+import okio.Buffer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+//DefaultCurseModpack uses this adapter directly instead of looking up an adapter through
+//Moshi. Manifests are read token by token straight into DefaultCurseModpack and PackedFiles,
+//and names are written in alphabetical order so that the output matches that of Moshi's
+//reflective adapter.
+//When writing compact JSON, the files array is copied from a segment cached by
+//DefaultCurseModpack, so it is only regenerated when the files of a modpack change.
+final class DefaultCurseModpackJsonAdapter extends JsonAdapter<DefaultCurseModpack> {
+	private static final JsonReader.Options MODPACK_OPTIONS = JsonReader.Options.of(
+			"minecraft", "manifestType", "manifestVersion", "name", "version", "author", "files",
+			"overrides"
+	);
+
+	private static final JsonReader.Options MINECRAFT_OPTIONS =
+			JsonReader.Options.of("version", "modLoaders");
+
+	private static final JsonReader.Options MOD_LOADER_OPTIONS =
+			JsonReader.Options.of("id", "primary");
+
+	private static final JsonReader.Options FILE_OPTIONS =
+			JsonReader.Options.of("projectID", "fileID", "required");
+
+	@Override
+	public DefaultCurseModpack fromJson(JsonReader reader) throws IOException {
+		final DefaultCurseModpack modpack = new DefaultCurseModpack();
+		reader.beginObject();
+
+		while (reader.hasNext()) {
+			switch (reader.selectName(MODPACK_OPTIONS)) {
+				case 0:
+					readMinecraftInfo(reader, modpack.minecraft);
+					break;
+				case 1:
+					modpack.manifestType = nextString(reader, modpack.manifestType);
+					break;
+				case 2:
+					modpack.manifestVersion = reader.nextInt();
+					break;
+				case 3:
+					modpack.name = nextString(reader, modpack.name);
+					break;
+				case 4:
+					modpack.version = nextString(reader, modpack.version);
+					break;
+				case 5:
+					modpack.author = nextString(reader, modpack.author);
+					break;
+				case 6:
+					modpack.packedFiles(readFiles(reader));
+					break;
+				case 7:
+					modpack.overrides = nextString(reader, null);
+					break;
+				default:
+					reader.skipName();
+					reader.skipValue();
+			}
+		}
+
+		reader.endObject();
+		return modpack;
+	}
+
+	@Override
+	public void toJson(JsonWriter writer, @Nullable DefaultCurseModpack modpack)
+			throws IOException {
+		if (modpack == null) {
+			writer.nullValue();
+			return;
+		}
+
+		writer.beginObject();
+		writer.name("author").value(modpack.author);
+		writer.name("files");
+
+		if (writer.getIndent().isEmpty()) {
+			writer.value(new Buffer().writeUtf8(modpack.filesJSON()));
+		} else {
+			writeFiles(writer, modpack.packedFiles());
+		}
+
+		writer.name("manifestType").value(modpack.manifestType);
+		writer.name("manifestVersion").value(modpack.manifestVersion);
+		writer.name("minecraft");
+		writeMinecraftInfo(writer, modpack.minecraft);
+		writer.name("name").value(modpack.name);
+
+		if (modpack.overrides != null) {
+			writer.name("overrides").value(modpack.overrides);
+		}
+
+		writer.name("version").value(modpack.version);
+		writer.endObject();
+	}
+
+	@Override
+	public String toString() {
+		return "JsonAdapter(DefaultCurseModpack)";
+	}
+
+	private static void readMinecraftInfo(
+			JsonReader reader, DefaultCurseModpack.MinecraftInfo minecraft
+	) throws IOException {
+		reader.beginObject();
+
+		while (reader.hasNext()) {
+			switch (reader.selectName(MINECRAFT_OPTIONS)) {
+				case 0:
+					minecraft.version = nextString(reader, minecraft.version);
+					break;
+				case 1:
+					minecraft.modLoaders = readModLoaders(reader);
+					break;
+				default:
+					reader.skipName();
+					reader.skipValue();
+			}
+		}
+
+		reader.endObject();
+	}
+
+	private static List<DefaultCurseModpack.MinecraftInfo.ModLoaderInfo> readModLoaders(
+			JsonReader reader
+	) throws IOException {
+		final List<DefaultCurseModpack.MinecraftInfo.ModLoaderInfo> modLoaders = new ArrayList<>();
+		reader.beginArray();
+
+		while (reader.hasNext()) {
+			final DefaultCurseModpack.MinecraftInfo.ModLoaderInfo modLoader =
+					new DefaultCurseModpack.MinecraftInfo.ModLoaderInfo();
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(MOD_LOADER_OPTIONS)) {
+					case 0:
+						modLoader.id = nextString(reader, modLoader.id);
+						break;
+					case 1:
+						modLoader.primary = reader.nextBoolean();
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			modLoaders.add(modLoader);
+		}
+
+		reader.endArray();
+		return modLoaders;
+	}
+
+	private static PackedFiles readFiles(JsonReader reader) throws IOException {
+		final PackedFiles files = new PackedFiles();
+		reader.beginArray();
+
+		while (reader.hasNext()) {
+			int projectID = 0;
+			int fileID = 0;
+			boolean required = true;
+
+			reader.beginObject();
+
+			while (reader.hasNext()) {
+				switch (reader.selectName(FILE_OPTIONS)) {
+					case 0:
+						projectID = reader.nextInt();
+						break;
+					case 1:
+						fileID = reader.nextInt();
+						break;
+					case 2:
+						required = reader.nextBoolean();
+						break;
+					default:
+						reader.skipName();
+						reader.skipValue();
+				}
+			}
+
+			reader.endObject();
+			files.add(projectID, fileID, required);
+		}
+
+		reader.endArray();
+		files.sort();
+		return files;
+	}
+
+	private static void writeMinecraftInfo(
+			JsonWriter writer, DefaultCurseModpack.MinecraftInfo minecraft
+	) throws IOException {
+		writer.beginObject();
+		writer.name("modLoaders").beginArray();
+
+		for (DefaultCurseModpack.MinecraftInfo.ModLoaderInfo modLoader : minecraft.modLoaders) {
+			writer.beginObject();
+			writer.name("id").value(modLoader.id);
+			writer.name("primary").value(modLoader.primary);
+			writer.endObject();
+		}
+
+		writer.endArray();
+		writer.name("version").value(minecraft.version);
+		writer.endObject();
+	}
+
+	//This method is called by DefaultCurseModpack.
+	static String filesJSON(PackedFiles files) throws IOException {
+		final Buffer buffer = new Buffer();
+
+		try (JsonWriter writer = JsonWriter.of(buffer)) {
+			writeFiles(writer, files);
+		}
+
+		return buffer.readUtf8();
+	}
+
+	private static void writeFiles(JsonWriter writer, PackedFiles files) throws IOException {
+		writer.beginArray();
+
+		for (int i = 0; i < files.size(); i++) {
+			writer.beginObject();
+			writer.name("fileID").value(files.fileID(i));
+			writer.name("projectID").value(files.projectID(i));
+			writer.name("required").value(files.isRequired(i));
+			writer.endObject();
+		}
+
+		writer.endArray();
+	}
+
+	@Nullable
+	private static String nextString(JsonReader reader, @Nullable String defaultValue)
+			throws IOException {
+		if (reader.peek() == JsonReader.Token.NULL) {
+			reader.nextNull();
+			return defaultValue;
+		}
+
+		return reader.nextString();
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.ByteStreams;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A content-addressed cache of downloaded modpack files that can be shared by multiple
+ * {@link ModpackInstaller}s and processes.
+ * <p>
+ * Files are stored under their SHA-256 hashes, which are computed while the files are being
+ * downloaded, and an index maps CurseForge file IDs to hashes. Because CurseForge file IDs are
+ * immutable, a file that is in the cache is installed by creating a hard link to it or by copying
+ * it rather than by downloading it again. Files are verified against their expected sizes and
+ * hashes both when they are stored and before they are installed, and if a cached file is missing
+ * or does not match, it is downloaded again and verified against the hash in the index.
+ */
+public final class DownloadCache {
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+	private final Path objectsDirectory;
+	private final Path indexDirectory;
+	private boolean hardLinks = true;
+
+	/**
+	 * Constructs a {@link DownloadCache} that stores files in the specified directory.
+	 *
+	 * @param directory a {@link Path} to a directory.
+	 */
+	public DownloadCache(Path directory) {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		objectsDirectory = directory.resolve("objects");
+		indexDirectory = directory.resolve("files");
+	}
+
+	/**
+	 * Returns whether files are installed from this cache by creating hard links.
+	 *
+	 * @return {@code true} if files are installed by creating hard links, or {@code false} if
+	 * they are copied.
+	 */
+	public boolean hardLinks() {
+		return hardLinks;
+	}
+
+	/**
+	 * Sets whether files are installed from this cache by creating hard links.
+	 * Hard links avoid copying files, but an installed file should then not be modified in place,
+	 * since that would also modify the cached file.
+	 * If a hard link cannot be created, for example because the installation directory is on a
+	 * different file system, the file is copied instead.
+	 *
+	 * @param hardLinks {@code true} if files should be installed by creating hard links, or
+	 * {@code false} if they should be copied.
+	 * @return this {@link DownloadCache}.
+	 */
+	public DownloadCache hardLinks(boolean hardLinks) {
+		this.hardLinks = hardLinks;
+		return this;
+	}
+
+	//This method is called by FileDownload.
+	//Returns null if the file with the specified ID has never been cached.
+	@Nullable
+	String hash(int fileID) throws IOException {
+		final Path indexPath = indexDirectory.resolve(Integer.toString(fileID));
+
+		if (!Files.isRegularFile(indexPath)) {
+			return null;
+		}
+
+		final String hash =
+				new String(Files.readAllBytes(indexPath), StandardCharsets.UTF_8).trim();
+		//An invalid index entry is treated as if the file had never been cached.
+		return HASH_PATTERN.matcher(hash).matches() ? hash : null;
+	}
+
+	//This method is called by FileDownload.
+	//Returns false if the file is not cached, in which case it should be downloaded.
+	boolean install(int fileID, long size, Path path) throws IOException {
+		final String hash = hash(fileID);
+
+		if (hash == null) {
+			return false;
+		}
+
+		final Path objectPath = objectPath(hash);
+
+		//The object is hashed again so that a corrupted object is never installed, especially
+		//by hard linking, which would share the corruption with every installation.
+		if (!matches(objectPath, size, hash)) {
+			//The object is replaced once the file has been downloaded again.
+			Files.deleteIfExists(objectPath);
+			return false;
+		}
+
+		Files.deleteIfExists(path);
+
+		if (!hardLinks || !link(path, objectPath)) {
+			final Path temporaryPath =
+					Files.createTempFile(path.toAbsolutePath().getParent(), hash, ".tmp");
+			Files.copy(objectPath, temporaryPath, StandardCopyOption.REPLACE_EXISTING);
+			Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		return true;
+	}
+
+	//This method is called by FileDownload once a downloaded file has been verified.
+	//The stored object is verified against the expected size and hash again, so that a file
+	//that was modified or copied incorrectly never enters the cache.
+	void add(int fileID, long size, String hash, Path path) throws IOException {
+		final Path objectPath = objectPath(hash);
+
+		//An existing object that does not match its hash is replaced.
+		if (!matches(objectPath, size, hash)) {
+			Files.createDirectories(objectPath.getParent());
+			//Objects are moved into place atomically so that other processes never see a
+			//partially written object.
+			final Path temporaryPath =
+					Files.createTempFile(objectPath.getParent(), hash, ".tmp");
+			Files.delete(temporaryPath);
+
+			if (!hardLinks || !link(temporaryPath, path)) {
+				Files.copy(path, temporaryPath);
+			}
+
+			if (!matches(temporaryPath, size, hash)) {
+				Files.delete(temporaryPath);
+				throw new IOException(
+						"File does not match SHA-256 hash " + hash + " and size " + size + ": " +
+								path
+				);
+			}
+
+			try {
+				Files.move(temporaryPath, objectPath, StandardCopyOption.ATOMIC_MOVE);
+			} catch (FileAlreadyExistsException ex) {
+				Files.delete(temporaryPath);
+			}
+		}
+
+		Files.createDirectories(indexDirectory);
+		final Path temporaryIndexPath =
+				Files.createTempFile(indexDirectory, Integer.toString(fileID), ".tmp");
+		Files.write(temporaryIndexPath, hash.getBytes(StandardCharsets.UTF_8));
+		Files.move(
+				temporaryIndexPath, indexDirectory.resolve(Integer.toString(fileID)),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE
+		);
+	}
+
+	private Path objectPath(String hash) {
+		//Objects are split into subdirectories so that no directory grows too large.
+		return objectsDirectory.resolve(hash.substring(0, 2)).resolve(hash);
+	}
+
+	//Returns false if the file does not exist, or if it does not have the specified size and hash.
+	//The size is not checked if it is negative.
+	private static boolean matches(Path path, long size, String hash) throws IOException {
+		if (!Files.isRegularFile(path) || (size >= 0L && Files.size(path) != size)) {
+			return false;
+		}
+
+		final MessageDigest digest = newDigest();
+
+		try (InputStream stream = new DigestInputStream(Files.newInputStream(path), digest)) {
+			ByteStreams.exhaust(stream);
+		}
+
+		return hash.equals(toHex(digest.digest()));
+	}
+
+	static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException ex) {
+			//Every Java implementation is required to support SHA-256.
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	static String toHex(byte[] hash) {
+		return BaseEncoding.base16().lowerCase().encode(hash);
+	}
+
+	private static boolean link(Path link, Path existing) {
+		try {
+			Files.createLink(link, existing);
+			return true;
+		} catch (IOException | UnsupportedOperationException ex) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,235 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.therandomlabs.curseapi.CurseException;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+//Downloads a single file straight to disk using FileChannel#transferFrom.
+//The file is first downloaded to a ".part" file next to the target, which is moved to the target
+//once it is complete. If a ".part" file already exists, the download is resumed using a Range
+//request, and if the target already exists with the expected size, it is not downloaded again.
+//If a DownloadCache is used, cached files are installed from the cache, and downloaded files are
+//hashed as they are streamed to disk so that they can be verified against the hash in the cache's
+//index before they are added to the cache.
+final class FileDownload {
+	private static final String PART_EXTENSION = ".part";
+	private static final long TRANSFER_SIZE = 1L << 20;
+
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder().
+			setNameFormat("CurseAPI-Minecraft download %d").
+			setDaemon(true).
+			build();
+
+	private final int fileID;
+	private final HttpUrl url;
+	private final Path path;
+	//This is negative if the size of the file is unknown.
+	private final long size;
+
+	FileDownload(int fileID, HttpUrl url, Path path, long size) {
+		this.fileID = fileID;
+		this.url = url;
+		this.path = path;
+		this.size = size;
+	}
+
+	Path path() {
+		return path;
+	}
+
+	//Returns false if the file was already present and did not need to be downloaded.
+	boolean download(OkHttpClient client, @Nullable DownloadCache cache) throws IOException {
+		if (size >= 0L && Files.isRegularFile(path) && Files.size(path) == size) {
+			return false;
+		}
+
+		if (cache != null && cache.install(fileID, size, path)) {
+			return true;
+		}
+
+		final MessageDigest digest = cache == null ? null : DownloadCache.newDigest();
+
+		final Path partPath = path.resolveSibling(path.getFileName() + PART_EXTENSION);
+		long offset = Files.isRegularFile(partPath) ? Files.size(partPath) : 0L;
+
+		if (size >= 0L && offset > size) {
+			offset = 0L;
+		}
+
+		if (digest != null && offset > 0L) {
+			//Only the part of the file that was downloaded previously needs to be read.
+			digest(partPath, offset, digest);
+		}
+
+		if (size < 0L || offset != size) {
+			offset = transfer(client, partPath, offset, digest);
+		}
+
+		if (size >= 0L && offset != size) {
+			Files.delete(partPath);
+			throw new IOException(
+					"Expected " + size + " bytes but received " + offset + " bytes: " + url
+			);
+		}
+
+		final String hash = digest == null ? null : DownloadCache.toHex(digest.digest());
+
+		if (hash != null) {
+			final String expectedHash = cache.hash(fileID);
+
+			if (expectedHash != null && !expectedHash.equals(hash)) {
+				Files.delete(partPath);
+				throw new IOException(
+						"Expected SHA-256 hash " + expectedHash + " but received " + hash + ": " +
+								url
+				);
+			}
+		}
+
+		Files.move(
+				partPath, path, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE
+		);
+
+		if (hash != null) {
+			cache.add(fileID, size, hash, path);
+		}
+
+		return true;
+	}
+
+	//Returns the size of the part file after the transfer.
+	private long transfer(
+			OkHttpClient client, Path partPath, long offset, @Nullable MessageDigest digest
+	) throws IOException {
+		final Request.Builder request = new Request.Builder().url(url);
+
+		if (offset > 0L) {
+			request.header("Range", "bytes=" + offset + '-');
+		}
+
+		try (Response response = client.newCall(request.build()).execute()) {
+			final ResponseBody body = response.body();
+
+			if (!response.isSuccessful() || body == null) {
+				throw new IOException("Unexpected response code " + response.code() + ": " + url);
+			}
+
+			//The server may ignore the Range header, in which case the file is downloaded from
+			//the start.
+			long position = response.code() == 206 ? offset : 0L;
+
+			if (digest != null && position == 0L) {
+				digest.reset();
+			}
+
+			final InputStream stream = digest == null ?
+					body.byteStream() : new DigestInputStream(body.byteStream(), digest);
+
+			try (FileChannel channel = FileChannel.open(
+					partPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE
+			); ReadableByteChannel source = Channels.newChannel(stream)) {
+				channel.truncate(position);
+				long transferred;
+
+				while ((transferred = channel.transferFrom(source, position, TRANSFER_SIZE)) > 0L) {
+					position += transferred;
+				}
+			}
+
+			return position;
+		}
+	}
+
+	private static void digest(Path path, long length, MessageDigest digest) throws IOException {
+		try (InputStream stream = new DigestInputStream(Files.newInputStream(path), digest)) {
+			ByteStreams.exhaust(ByteStreams.limit(stream, length));
+		}
+	}
+
+	//Downloads the specified files using at most the specified number of threads.
+	//Once a download fails, the remaining downloads are cancelled.
+	static List<Path> downloadAll(
+			List<FileDownload> downloads, int parallelism, OkHttpClient client,
+			@Nullable DownloadCache cache
+	) throws CurseException {
+		final List<Path> paths = new ArrayList<>(downloads.size());
+
+		if (downloads.isEmpty()) {
+			return paths;
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(parallelism, downloads.size()), THREAD_FACTORY
+		);
+		final List<Future<Boolean>> futures = new ArrayList<>(downloads.size());
+
+		try {
+			for (FileDownload download : downloads) {
+				futures.add(executor.submit(() -> download.download(client, cache)));
+			}
+
+			for (int i = 0; i < downloads.size(); i++) {
+				futures.get(i).get();
+				paths.add(downloads.get(i).path);
+			}
+		} catch (ExecutionException ex) {
+			throw new CurseException("Failed to download files", ex.getCause());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CurseException("Interrupted while downloading files", ex);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		return paths;
+	}
+}
@@ -0,0 +1,313 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.therandomlabs.curseapi.CurseAPI;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.file.CurseFiles;
+import com.therandomlabs.curseapi.minecraft.ForgeSvcMinecraftProvider;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.LoggerFactory;
+
+//Resolves BasicCurseFiles to CurseFiles according to a ResolveOptions.
+//Files in CurseFileCache are not retrieved again, and if any of them are known not to exist,
+//resolution fails before any requests are sent.
+//Files are split into batches of ResolveOptions#batchSize(), each of which is retrieved in a
+//single request, and any files that are missing from the response or that belong to a batch
+//that could not be retrieved are retrieved individually.
+//At most ResolveOptions#parallelism() workers are submitted to the executor, so the concurrency
+//limit holds on any executor. Each worker takes the next batch until none are left and adds the
+//files in it that are still unresolved to a shared queue, which all workers then drain, so files
+//are retrieved individually in parallel even if there is only one batch.
+//Once a worker fails or the timeout elapses, the other workers stop.
+//Every request acquires a permit from the RateLimiter held by the ResolveOptions, so concurrent
+//resolutions that use the same ResolveOptions share a single rate limit.
+final class FileResolver {
+	//This is added to leftoverFiles once for each worker after the last batch has been retrieved
+	//or resolution has stopped, so that every worker stops waiting for files.
+	private static final int NO_MORE_FILES = -1;
+
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactoryBuilder().
+			setNameFormat("CurseAPI-Minecraft file resolution %d").
+			setDaemon(true).
+			build();
+
+	private final BasicCurseFile[] files;
+	private final CurseFile[] resolvedFiles;
+	private final ResolveOptions options;
+	private final int batchCount;
+	@Nullable
+	private final RateLimiter rateLimiter;
+	private final AtomicInteger nextBatch = new AtomicInteger();
+	private final AtomicInteger remainingBatches;
+	private final BlockingQueue<Integer> leftoverFiles = new LinkedBlockingQueue<>();
+	private final AtomicInteger resolvedCount = new AtomicInteger();
+	private final AtomicBoolean stopped = new AtomicBoolean();
+	private int workerCount;
+
+	private FileResolver(Collection<? extends BasicCurseFile> files, ResolveOptions options) {
+		this.files = files.toArray(new BasicCurseFile[0]);
+		resolvedFiles = new CurseFile[this.files.length];
+		this.options = options;
+		batchCount = (this.files.length + options.batchSize() - 1) / options.batchSize();
+		remainingBatches = new AtomicInteger(batchCount);
+		rateLimiter = options.rateLimiter();
+	}
+
+	static CurseFiles<CurseFile> resolve(
+			Collection<? extends BasicCurseFile> files, ResolveOptions options
+	) throws CurseException {
+		return new FileResolver(files, options).resolve();
+	}
+
+	private CurseFiles<CurseFile> resolve() throws CurseException {
+		if (files.length == 0) {
+			return new CurseFiles<>();
+		}
+
+		for (int i = 0; i < files.length; i++) {
+			final CurseFile cachedFile = CurseFileCache.getIfPresent(files[i]);
+
+			if (cachedFile != null) {
+				resolved(i, cachedFile);
+			} else if (CurseFileCache.isKnownMissing(files[i])) {
+				throw fileNotFound(files[i]);
+			}
+		}
+
+		final int unresolvedCount = files.length - resolvedCount.get();
+
+		if (unresolvedCount == 0) {
+			return new CurseFiles<>(Arrays.asList(resolvedFiles));
+		}
+
+		workerCount = Math.min(options.parallelism(), unresolvedCount);
+		final ExecutorService threadPool = options.executor().isPresent() ?
+				null : Executors.newFixedThreadPool(workerCount, THREAD_FACTORY);
+		final Executor executor = threadPool == null ? options.executor().get() : threadPool;
+
+		try {
+			final CompletableFuture<?>[] workers = new CompletableFuture<?>[workerCount];
+
+			for (int i = 0; i < workerCount; i++) {
+				workers[i] = CompletableFuture.runAsync(this::work, executor);
+			}
+
+			await(CompletableFuture.allOf(workers));
+		} finally {
+			stop();
+
+			if (threadPool != null) {
+				threadPool.shutdownNow();
+			}
+		}
+
+		return new CurseFiles<>(Arrays.asList(resolvedFiles));
+	}
+
+	private void work() {
+		boolean completed = false;
+
+		try {
+			int batch;
+
+			while (!stopped.get() && (batch = nextBatch.getAndIncrement()) < batchCount) {
+				final int start = batch * options.batchSize();
+				final int end = Math.min(start + options.batchSize(), files.length);
+				resolveBatch(start, end);
+
+				for (int i = start; i < end; i++) {
+					if (resolvedFiles[i] == null) {
+						leftoverFiles.add(i);
+					}
+				}
+
+				if (remainingBatches.decrementAndGet() == 0) {
+					addNoMoreFiles();
+				}
+			}
+
+			int index;
+
+			while (!stopped.get() && (index = leftoverFiles.take()) != NO_MORE_FILES) {
+				resolveFile(index);
+			}
+
+			completed = true;
+		} catch (CurseException ex) {
+			throw new CompletionException(ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CompletionException(ex);
+		} finally {
+			if (!completed) {
+				stop();
+			}
+		}
+	}
+
+	private void stop() {
+		if (!stopped.getAndSet(true)) {
+			addNoMoreFiles();
+		}
+	}
+
+	private void addNoMoreFiles() {
+		for (int i = 0; i < workerCount; i++) {
+			leftoverFiles.add(NO_MORE_FILES);
+		}
+	}
+
+	private void resolveBatch(int start, int end) {
+		final List<BasicCurseFile> unresolvedFiles = new ArrayList<>(end - start);
+
+		for (int i = start; i < end; i++) {
+			if (resolvedFiles[i] == null) {
+				unresolvedFiles.add(files[i]);
+			}
+		}
+
+		if (unresolvedFiles.size() < 2) {
+			return;
+		}
+
+		acquirePermit();
+
+		final CurseFiles<CurseFile> batch;
+
+		try {
+			batch = ForgeSvcMinecraftProvider.INSTANCE.files(unresolvedFiles);
+		} catch (CurseException ex) {
+			//The files in this batch are retrieved individually instead.
+			LoggerFactory.getLogger(FileResolver.class).warn(
+					"Failed to retrieve batch of {} files", unresolvedFiles.size(), ex
+			);
+			return;
+		}
+
+		final Map<Long, CurseFile> retrievedFiles = new HashMap<>(batch.size() * 2);
+
+		for (CurseFile file : batch) {
+			retrievedFiles.put(PackedFiles.pack(file.projectID(), file.id()), file);
+			CurseFileCache.put(file);
+		}
+
+		for (int i = start; i < end; i++) {
+			final CurseFile file =
+					retrievedFiles.get(PackedFiles.pack(files[i].projectID(), files[i].id()));
+
+			if (resolvedFiles[i] == null && file != null) {
+				resolved(i, file);
+			}
+		}
+	}
+
+	private void resolveFile(int index) throws CurseException {
+		acquirePermit();
+
+		final BasicCurseFile basicFile = files[index];
+		final Optional<CurseFile> file = CurseAPI.file(basicFile.projectID(), basicFile.id());
+
+		if (!file.isPresent()) {
+			CurseFileCache.putMissing(basicFile);
+			throw fileNotFound(basicFile);
+		}
+
+		CurseFileCache.put(file.get());
+		resolved(index, file.get());
+	}
+
+	private void resolved(int index, CurseFile file) {
+		resolvedFiles[index] = file;
+		final int resolved = resolvedCount.incrementAndGet();
+		options.progressListener().ifPresent(
+				listener -> listener.fileResolved(file, resolved, files.length)
+		);
+	}
+
+	private static CurseException fileNotFound(BasicCurseFile file) {
+		return new CurseException("File not found: " + file.projectID() + '/' + file.id());
+	}
+
+	private void acquirePermit() {
+		if (rateLimiter != null) {
+			rateLimiter.acquire();
+		}
+	}
+
+	private void await(CompletableFuture<?> future) throws CurseException {
+		try {
+			final Duration timeout = options.timeout().orElse(null);
+
+			if (timeout == null) {
+				future.get();
+			} else {
+				future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+			}
+		} catch (TimeoutException ex) {
+			throw new CurseException(
+					"Timed out after resolving " + resolvedCount.get() + " of " + files.length +
+							" files",
+					ex
+			);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CurseException("Interrupted while resolving files", ex);
+		} catch (ExecutionException ex) {
+			final Throwable cause = ex.getCause();
+
+			if (cause instanceof CurseException) {
+				throw (CurseException) cause;
+			}
+
+			throw new CurseException("Failed to resolve files", cause);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.file.CurseFiles;
+
+/**
+ * The difference between the files of two {@link CurseModpack}s, for example two versions of the
+ * same modpack.
+ * <p>
+ * Files are compared by project ID: a project whose file differs between the two modpacks is
+ * considered changed, and projects that are only in one of the modpacks are considered added or
+ * removed. Computing a {@code ModpackDiff} does not require any requests to CurseForge.
+ *
+ * @see ModpackInstaller#upgrade(CurseModpack)
+ */
+public final class ModpackDiff {
+	/**
+	 * A project whose file differs between two {@link CurseModpack}s.
+	 */
+	public static final class FileChange {
+		private final BasicCurseFile oldFile;
+		private final BasicCurseFile newFile;
+
+		private FileChange(BasicCurseFile oldFile, BasicCurseFile newFile) {
+			this.oldFile = oldFile;
+			this.newFile = newFile;
+		}
+
+		/**
+		 * Returns the file in the old modpack.
+		 *
+		 * @return the file in the old modpack.
+		 */
+		public BasicCurseFile oldFile() {
+			return oldFile;
+		}
+
+		/**
+		 * Returns the file in the new modpack.
+		 *
+		 * @return the file in the new modpack.
+		 */
+		public BasicCurseFile newFile() {
+			return newFile;
+		}
+	}
+
+	private final CurseFiles<BasicCurseFile> addedFiles = new CurseFiles<>();
+	private final CurseFiles<BasicCurseFile> removedFiles = new CurseFiles<>();
+	private final List<FileChange> changedFiles = new ArrayList<>();
+	//These contain the files that are in only one of the modpacks, including changed files.
+	private final CurseFiles<BasicCurseFile> obsoleteFiles = new CurseFiles<>();
+	private final CurseFiles<BasicCurseFile> newFiles = new CurseFiles<>();
+
+	private ModpackDiff(
+			Set<? extends BasicCurseFile> oldFiles, Set<? extends BasicCurseFile> newFiles
+	) {
+		//Old files are grouped by project ID so that they can be paired with new files.
+		final Map<Integer, Deque<BasicCurseFile>> obsoleteFilesByProject = new HashMap<>();
+
+		for (BasicCurseFile file : oldFiles) {
+			if (!newFiles.contains(file)) {
+				obsoleteFiles.add(file);
+				obsoleteFilesByProject.computeIfAbsent(
+						file.projectID(), projectID -> new ArrayDeque<>()
+				).add(file);
+			}
+		}
+
+		for (BasicCurseFile file : newFiles) {
+			if (oldFiles.contains(file)) {
+				continue;
+			}
+
+			this.newFiles.add(file);
+			final Deque<BasicCurseFile> obsoleteProjectFiles =
+					obsoleteFilesByProject.get(file.projectID());
+
+			if (obsoleteProjectFiles == null || obsoleteProjectFiles.isEmpty()) {
+				addedFiles.add(file);
+			} else {
+				changedFiles.add(new FileChange(obsoleteProjectFiles.poll(), file));
+			}
+		}
+
+		for (Deque<BasicCurseFile> obsoleteProjectFiles : obsoleteFilesByProject.values()) {
+			removedFiles.addAll(obsoleteProjectFiles);
+		}
+	}
+
+	/**
+	 * Computes the difference between the files of two {@link CurseModpack}s.
+	 *
+	 * @param oldModpack the old {@link CurseModpack}.
+	 * @param newModpack the new {@link CurseModpack}.
+	 * @return a {@link ModpackDiff} that describes the changes from {@code oldModpack} to
+	 * {@code newModpack}.
+	 */
+	public static ModpackDiff of(CurseModpack oldModpack, CurseModpack newModpack) {
+		Preconditions.checkNotNull(oldModpack, "oldModpack should not be null");
+		Preconditions.checkNotNull(newModpack, "newModpack should not be null");
+		//BasicCurseFiles are compared by project and file ID, so HashSets can be used regardless
+		//of the BasicCurseFile implementations.
+		return new ModpackDiff(
+				new HashSet<>(oldModpack.basicFiles()), new HashSet<>(newModpack.basicFiles())
+		);
+	}
+
+	/**
+	 * Returns the files of projects that are only in the new modpack.
+	 *
+	 * @return a {@link CurseFiles} containing the files of projects that are only in the
+	 * new modpack.
+	 */
+	public CurseFiles<BasicCurseFile> addedFiles() {
+		return addedFiles.clone();
+	}
+
+	/**
+	 * Returns the files of projects that are only in the old modpack.
+	 *
+	 * @return a {@link CurseFiles} containing the files of projects that are only in the
+	 * old modpack.
+	 */
+	public CurseFiles<BasicCurseFile> removedFiles() {
+		return removedFiles.clone();
+	}
+
+	/**
+	 * Returns the projects whose files differ between the two modpacks.
+	 *
+	 * @return an immutable {@link List} of {@link FileChange}s.
+	 */
+	public List<FileChange> changedFiles() {
+		return Collections.unmodifiableList(changedFiles);
+	}
+
+	/**
+	 * Returns whether the two modpacks contain the same files.
+	 *
+	 * @return {@code true} if the two modpacks contain the same files, or otherwise
+	 * {@code false}.
+	 */
+	public boolean isEmpty() {
+		return obsoleteFiles.isEmpty() && newFiles.isEmpty();
+	}
+
+	//This method is called by ModpackInstaller.
+	CurseFiles<BasicCurseFile> obsoleteFiles() {
+		return obsoleteFiles;
+	}
+
+	//This method is called by ModpackInstaller.
+	CurseFiles<BasicCurseFile> newFiles() {
+		return newFiles;
+	}
+}
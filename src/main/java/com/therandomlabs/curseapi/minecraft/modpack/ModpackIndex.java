@@ -0,0 +1,600 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.minecraft.MCVersion;
+import com.therandomlabs.curseapi.minecraft.MCVersions;
+import com.therandomlabs.curseapi.minecraft.util.LongObjectMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An in-memory index that records which modpacks contain each file and project, so that
+ * questions such as which modpacks contain a file or which mods are the most popular for a
+ * Minecraft version can be answered without scanning the files of every modpack.
+ * <p>
+ * Each modpack is identified by a string ID and is assigned a dense ordinal.
+ * For every file ID, project ID and Minecraft version, the index records the ordinals of the
+ * modpacks that contain it in a compressed posting list, which is stored as a sorted array
+ * when it is sparse and as a bitmap when it is dense.
+ * Posting lists are stored in primitive int-keyed hash maps, so lookups do not box keys.
+ * <p>
+ * Modpacks can be added and removed incrementally, and the index can be saved to and loaded
+ * from a compact snapshot file. This class is thread-safe.
+ */
+public final class ModpackIndex {
+	private static final int MAGIC = 0x4D504958;
+	private static final int FORMAT_VERSION = 1;
+
+	private static final class Entry {
+		final String id;
+		final MCVersion mcVersion;
+		//Packed project and file IDs, sorted and without duplicates.
+		final long[] files;
+
+		Entry(String id, MCVersion mcVersion, long[] files) {
+			this.id = id;
+			this.mcVersion = mcVersion;
+			this.files = files;
+		}
+	}
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Integer> ordinals = new HashMap<>();
+	//Entries are stored by ordinal. The ordinals of removed modpacks are reused so that
+	//ordinals, and therefore bitmaps, stay dense.
+	private final List<Entry> entries = new ArrayList<>();
+	private int[] freeOrdinals = new int[0];
+	private int freeOrdinalCount;
+	private final LongObjectMap<PostingList> fileIndex = new LongObjectMap<>();
+	private final LongObjectMap<PostingList> projectIndex = new LongObjectMap<>();
+	private final Map<MCVersion, PostingList> versionIndex = new HashMap<>();
+
+	/**
+	 * Returns the number of modpacks in this index.
+	 *
+	 * @return the number of modpacks in this index.
+	 */
+	public int size() {
+		final Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			return ordinals.size();
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns whether this index contains the modpack with the specified ID.
+	 *
+	 * @param id a modpack ID.
+	 * @return {@code true} if this index contains the modpack with the specified ID,
+	 * or otherwise {@code false}.
+	 */
+	public boolean contains(String id) {
+		Preconditions.checkNotNull(id, "id should not be null");
+		final Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			return ordinals.containsKey(id);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Adds the specified modpack to this index. If this index already contains a modpack with
+	 * the specified ID, it is replaced.
+	 *
+	 * @param id a modpack ID.
+	 * @param modpack a {@link CurseModpack}.
+	 * @return this {@link ModpackIndex}.
+	 */
+	public ModpackIndex add(String id, CurseModpack modpack) {
+		Preconditions.checkNotNull(id, "id should not be null");
+		Preconditions.checkNotNull(modpack, "modpack should not be null");
+
+		final long[] files;
+
+		if (modpack instanceof DefaultCurseModpack) {
+			final PackedFiles packedFiles = ((DefaultCurseModpack) modpack).packedFiles();
+			files = new long[packedFiles.size()];
+
+			for (int i = 0; i < files.length; i++) {
+				files[i] = packedFiles.get(i);
+			}
+		} else {
+			files = modpack.basicFiles().stream().
+					mapToLong(file -> PackedFiles.pack(file.projectID(), file.id())).
+					toArray();
+		}
+
+		add(id, modpack.mcVersion(), files);
+		return this;
+	}
+
+	/**
+	 * Adds the specified {@link ScannedModpack} to this index using the string form of its
+	 * archive path as its ID. If this index already contains a modpack with the same ID,
+	 * it is replaced.
+	 *
+	 * @param modpack a {@link ScannedModpack}.
+	 * @return this {@link ModpackIndex}.
+	 */
+	public ModpackIndex add(ScannedModpack modpack) {
+		Preconditions.checkNotNull(modpack, "modpack should not be null");
+		add(modpack.archive().toString(), modpack.mcVersion(), modpack.packedFiles().clone());
+		return this;
+	}
+
+	/**
+	 * Removes the modpack with the specified ID from this index.
+	 *
+	 * @param id a modpack ID.
+	 * @return {@code true} if this index contained the modpack with the specified ID,
+	 * or otherwise {@code false}.
+	 */
+	public boolean remove(String id) {
+		Preconditions.checkNotNull(id, "id should not be null");
+		final Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			return removeEntry(id);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the IDs of the modpacks that contain the specified file.
+	 *
+	 * @param fileID a file ID.
+	 * @return a mutable {@link List} containing the IDs of the modpacks that contain the
+	 * specified file.
+	 */
+	public List<String> modpacksWithFile(int fileID) {
+		final Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			return ids(fileIndex.get(fileID));
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the IDs of the modpacks that contain a file that belongs to the specified project.
+	 *
+	 * @param projectID a project ID.
+	 * @return a mutable {@link List} containing the IDs of the modpacks that contain a file that
+	 * belongs to the specified project.
+	 */
+	public List<String> modpacksWithProject(int projectID) {
+		final Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			return ids(projectIndex.get(projectID));
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of modpacks that contain a file that belongs to the specified project.
+	 *
+	 * @param projectID a project ID.
+	 * @return the number of modpacks that contain a file that belongs to the specified project.
+	 */
+	public int projectUsage(int projectID) {
+		final Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			final PostingList modpacks = projectIndex.get(projectID);
+			return modpacks == null ? 0 : modpacks.size();
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of modpacks for the specified Minecraft version that contain a file
+	 * that belongs to the specified project.
+	 *
+	 * @param projectID a project ID.
+	 * @param version an {@link MCVersion}.
+	 * @return the number of modpacks for the specified Minecraft version that contain a file
+	 * that belongs to the specified project.
+	 */
+	public int projectUsage(int projectID, MCVersion version) {
+		Preconditions.checkNotNull(version, "version should not be null");
+		final Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			final PostingList modpacks = projectIndex.get(projectID);
+			final PostingList versionModpacks = versionIndex.get(version);
+			return modpacks == null || versionModpacks == null ?
+					0 : modpacks.intersectionSize(versionModpacks);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the IDs of the projects that are contained in the most modpacks.
+	 *
+	 * @param limit the maximum number of project IDs to return.
+	 * @return an array containing up to {@code limit} project IDs, ordered by the number of
+	 * modpacks that contain them in descending order.
+	 */
+	public int[] mostUsedProjects(int limit) {
+		return mostUsedProjects(null, limit);
+	}
+
+	/**
+	 * Returns the IDs of the projects that are contained in the most modpacks for the specified
+	 * Minecraft version.
+	 *
+	 * @param version an {@link MCVersion}, or {@code null} if modpacks for all Minecraft versions
+	 * should be counted.
+	 * @param limit the maximum number of project IDs to return.
+	 * @return an array containing up to {@code limit} project IDs, ordered by the number of
+	 * modpacks that contain them in descending order.
+	 */
+	public int[] mostUsedProjects(@Nullable MCVersion version, int limit) {
+		Preconditions.checkArgument(limit >= 0, "limit should not be negative");
+		final Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			final PostingList versionModpacks = version == null ? null : versionIndex.get(version);
+
+			if (version != null && versionModpacks == null) {
+				return new int[0];
+			}
+
+			//Each project is packed into a long containing its usage in the upper 32 bits and
+			//its inverted ID in the lower 32 bits, so that sorting orders projects by usage and
+			//then by ascending ID.
+			final long[] projects = new long[projectIndex.size()];
+			final int[] count = new int[1];
+
+			projectIndex.forEach((projectID, modpacks) -> {
+				final int usage = versionModpacks == null ?
+						modpacks.size() : modpacks.intersectionSize(versionModpacks);
+
+				if (usage != 0) {
+					projects[count[0]++] = ((long) usage << 32) | (~projectID & 0xFFFFFFFFL);
+				}
+			});
+
+			Arrays.sort(projects, 0, count[0]);
+
+			final int[] projectIDs = new int[Math.min(limit, count[0])];
+
+			for (int i = 0; i < projectIDs.length; i++) {
+				projectIDs[i] = ~(int) projects[count[0] - 1 - i];
+			}
+
+			return projectIDs;
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Saves a snapshot of this index to the specified {@link Path}.
+	 * The snapshot is written to a temporary file first, so the existing snapshot is only
+	 * replaced once the new snapshot has been written successfully.
+	 *
+	 * @param path a {@link Path}.
+	 * @throws CurseException if an error occurs.
+	 */
+	public void save(Path path) throws CurseException {
+		Preconditions.checkNotNull(path, "path should not be null");
+		final Lock readLock = lock.readLock();
+		readLock.lock();
+
+		try {
+			final Path temporaryPath = Files.createTempFile(
+					path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp"
+			);
+
+			try (DataOutputStream stream = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(temporaryPath))
+			)) {
+				stream.writeInt(MAGIC);
+				stream.writeInt(FORMAT_VERSION);
+				stream.writeInt(ordinals.size());
+
+				for (Entry entry : entries) {
+					if (entry != null) {
+						writeEntry(stream, entry);
+					}
+				}
+			} catch (IOException ex) {
+				Files.deleteIfExists(temporaryPath);
+				throw ex;
+			}
+
+			Files.move(
+					temporaryPath, path, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE
+			);
+		} catch (IOException ex) {
+			throw new CurseException("Failed to save modpack index: " + path, ex);
+		} finally {
+			readLock.unlock();
+		}
+	}
+
+	/**
+	 * Loads a {@link ModpackIndex} from a snapshot created by {@link #save(Path)}.
+	 * <p>
+	 * Minecraft versions are stored by their version strings, so modpacks for versions that were
+	 * registered at runtime, e.g. using {@link MCVersions#register(String)}, are loaded with
+	 * {@link MCVersions#UNKNOWN} unless those versions are registered again before the snapshot
+	 * is loaded.
+	 *
+	 * @param path a {@link Path} to a snapshot.
+	 * @return a {@link ModpackIndex}.
+	 * @throws CurseException if an error occurs or the snapshot is invalid.
+	 */
+	public static ModpackIndex load(Path path) throws CurseException {
+		Preconditions.checkNotNull(path, "path should not be null");
+
+		final ModpackIndex index = new ModpackIndex();
+
+		try (DataInputStream stream = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(path))
+		)) {
+			if (stream.readInt() != MAGIC || stream.readInt() != FORMAT_VERSION) {
+				throw new CurseException("Invalid modpack index: " + path);
+			}
+
+			//Every modpack and every file takes up at least one byte, so counts that are larger
+			//than the snapshot can only come from a corrupted snapshot, and they are rejected
+			//before any arrays are allocated for them.
+			final long maximumCount = Files.size(path);
+			final int size = stream.readInt();
+
+			if (size < 0 || size > maximumCount) {
+				throw new CurseException("Invalid modpack index: " + path);
+			}
+
+			for (int i = 0; i < size; i++) {
+				final String id = stream.readUTF();
+				final MCVersion mcVersion = MCVersions.get(stream.readUTF());
+				final int fileCount = readVarInt(stream);
+
+				if (index.ordinals.containsKey(id) || fileCount < 0 ||
+						fileCount > maximumCount) {
+					throw new CurseException("Invalid modpack index: " + path);
+				}
+
+				final long[] files = new long[fileCount];
+				long file = 0L;
+
+				//Files are sorted, so they are stored as the differences between consecutive
+				//files, which are small enough to be encoded in a few bytes.
+				for (int j = 0; j < files.length; j++) {
+					final long difference = readVarLong(stream);
+
+					//Entries rely on their files being sorted and distinct.
+					if (j != 0 && (difference <= 0L || file + difference <= file)) {
+						throw new CurseException("Invalid modpack index: " + path);
+					}
+
+					file += difference;
+					files[j] = file;
+				}
+
+				index.addEntry(id, mcVersion, files);
+			}
+		} catch (IOException | RuntimeException ex) {
+			throw new CurseException("Failed to load modpack index: " + path, ex);
+		}
+
+		return index;
+	}
+
+	private void add(String id, MCVersion mcVersion, long[] files) {
+		Arrays.sort(files);
+		int distinctFiles = 0;
+
+		for (int i = 0; i < files.length; i++) {
+			if (i == 0 || files[i] != files[i - 1]) {
+				files[distinctFiles++] = files[i];
+			}
+		}
+
+		final long[] trimmedFiles =
+				distinctFiles == files.length ? files : Arrays.copyOf(files, distinctFiles);
+		final Lock writeLock = lock.writeLock();
+		writeLock.lock();
+
+		try {
+			removeEntry(id);
+			addEntry(id, mcVersion, trimmedFiles);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	private void addEntry(String id, MCVersion mcVersion, long[] files) {
+		final int ordinal;
+
+		if (freeOrdinalCount != 0) {
+			ordinal = freeOrdinals[--freeOrdinalCount];
+			entries.set(ordinal, new Entry(id, mcVersion, files));
+		} else {
+			ordinal = entries.size();
+			entries.add(new Entry(id, mcVersion, files));
+		}
+
+		ordinals.put(id, ordinal);
+		versionIndex.computeIfAbsent(mcVersion, version -> new PostingList()).add(ordinal);
+
+		for (int i = 0; i < files.length; i++) {
+			fileIndex.computeIfAbsent(PackedFiles.fileID(files[i]), key -> new PostingList()).
+					add(ordinal);
+
+			//Files are sorted by project ID, so each project is only added once.
+			final int projectID = PackedFiles.projectID(files[i]);
+
+			if (i == 0 || PackedFiles.projectID(files[i - 1]) != projectID) {
+				projectIndex.computeIfAbsent(projectID, key -> new PostingList()).add(ordinal);
+			}
+		}
+	}
+
+	private boolean removeEntry(String id) {
+		final Integer boxedOrdinal = ordinals.remove(id);
+
+		if (boxedOrdinal == null) {
+			return false;
+		}
+
+		final int ordinal = boxedOrdinal;
+		final Entry entry = entries.set(ordinal, null);
+
+		if (remove(versionIndex.get(entry.mcVersion), ordinal)) {
+			versionIndex.remove(entry.mcVersion);
+		}
+
+		for (int i = 0; i < entry.files.length; i++) {
+			final int fileID = PackedFiles.fileID(entry.files[i]);
+
+			if (remove(fileIndex.get(fileID), ordinal)) {
+				fileIndex.remove(fileID);
+			}
+
+			final int projectID = PackedFiles.projectID(entry.files[i]);
+
+			if ((i == 0 || PackedFiles.projectID(entry.files[i - 1]) != projectID) &&
+					remove(projectIndex.get(projectID), ordinal)) {
+				projectIndex.remove(projectID);
+			}
+		}
+
+		if (freeOrdinalCount == freeOrdinals.length) {
+			freeOrdinals = Arrays.copyOf(freeOrdinals, Math.max(4, freeOrdinalCount * 2));
+		}
+
+		freeOrdinals[freeOrdinalCount++] = ordinal;
+		return true;
+	}
+
+	private List<String> ids(@Nullable PostingList modpacks) {
+		if (modpacks == null) {
+			return new ArrayList<>();
+		}
+
+		final List<String> ids = new ArrayList<>(modpacks.size());
+		modpacks.forEach(ordinal -> ids.add(entries.get(ordinal).id));
+		return ids;
+	}
+
+	//Removes the ordinal from the posting list and returns whether the list is now empty.
+	private static boolean remove(PostingList modpacks, int ordinal) {
+		modpacks.remove(ordinal);
+		return modpacks.isEmpty();
+	}
+
+	private static void writeEntry(DataOutputStream stream, Entry entry) throws IOException {
+		stream.writeUTF(entry.id);
+		stream.writeUTF(entry.mcVersion.versionString());
+		writeVarInt(stream, entry.files.length);
+		long previousFile = 0L;
+
+		for (long file : entry.files) {
+			writeVarLong(stream, file - previousFile);
+			previousFile = file;
+		}
+	}
+
+	private static void writeVarInt(DataOutputStream stream, int value) throws IOException {
+		writeVarLong(stream, value & 0xFFFFFFFFL);
+	}
+
+	private static void writeVarLong(DataOutputStream stream, long value) throws IOException {
+		while ((value & ~0x7FL) != 0L) {
+			stream.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		stream.writeByte((int) value);
+	}
+
+	private static int readVarInt(DataInputStream stream) throws IOException {
+		final long value = readVarLong(stream);
+
+		//Variable-length ints are written as unsigned 32-bit integers.
+		if ((value & ~0xFFFFFFFFL) != 0L) {
+			throw new IOException("Malformed variable-length integer");
+		}
+
+		return (int) value;
+	}
+
+	private static long readVarLong(DataInputStream stream) throws IOException {
+		long value = 0L;
+
+		for (int shift = 0; shift < 64; shift += 7) {
+			final byte b = stream.readByte();
+			value |= (long) (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new IOException("Malformed variable-length integer");
+	}
+}
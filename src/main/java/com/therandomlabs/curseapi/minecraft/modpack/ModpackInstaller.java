@@ -0,0 +1,218 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.file.CurseFiles;
+import okhttp3.OkHttpClient;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Installs a {@link CurseModpack} by downloading all of its files into a directory.
+ * <p>
+ * Files are downloaded concurrently and streamed straight to disk. Partially downloaded files
+ * are resumed, and files that are already present with the expected size are not downloaded
+ * again, so an interrupted installation can simply be run again.
+ */
+public final class ModpackInstaller {
+	/**
+	 * The default maximum number of files that are downloaded concurrently.
+	 */
+	public static final int DEFAULT_PARALLELISM = 4;
+
+	private static final OkHttpClient CLIENT = new OkHttpClient();
+
+	private final CurseModpack modpack;
+	private final Path directory;
+	private int parallelism = DEFAULT_PARALLELISM;
+	private ResolveOptions resolveOptions = new ResolveOptions();
+	@Nullable
+	private DownloadCache downloadCache;
+
+	/**
+	 * Constructs a {@link ModpackInstaller} that installs the specified modpack into the
+	 * specified directory.
+	 *
+	 * @param modpack a {@link CurseModpack}.
+	 * @param directory a {@link Path} to the directory into which the modpack's files should
+	 * be downloaded.
+	 */
+	public ModpackInstaller(CurseModpack modpack, Path directory) {
+		Preconditions.checkNotNull(modpack, "modpack should not be null");
+		Preconditions.checkNotNull(directory, "directory should not be null");
+		this.modpack = modpack;
+		this.directory = directory;
+	}
+
+	/**
+	 * Returns the maximum number of files that are downloaded concurrently.
+	 *
+	 * @return the maximum number of files that are downloaded concurrently.
+	 */
+	public int parallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the maximum number of files that are downloaded concurrently.
+	 *
+	 * @param parallelism a positive integer.
+	 * @return this {@link ModpackInstaller}.
+	 */
+	public ModpackInstaller parallelism(int parallelism) {
+		Preconditions.checkArgument(parallelism > 0, "parallelism should be positive");
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Returns the {@link ResolveOptions} that are used to resolve the modpack's files.
+	 *
+	 * @return the {@link ResolveOptions} that are used to resolve the modpack's files.
+	 */
+	public ResolveOptions resolveOptions() {
+		return resolveOptions;
+	}
+
+	/**
+	 * Sets the {@link ResolveOptions} that are used to resolve the modpack's files.
+	 *
+	 * @param options a {@link ResolveOptions}.
+	 * @return this {@link ModpackInstaller}.
+	 */
+	public ModpackInstaller resolveOptions(ResolveOptions options) {
+		Preconditions.checkNotNull(options, "options should not be null");
+		resolveOptions = options;
+		return this;
+	}
+
+	/**
+	 * Returns the {@link DownloadCache} from which files are installed.
+	 *
+	 * @return an {@link Optional} containing the {@link DownloadCache} from which files are
+	 * installed, or {@link Optional#empty()} if files are always downloaded.
+	 */
+	public Optional<DownloadCache> downloadCache() {
+		return Optional.ofNullable(downloadCache);
+	}
+
+	/**
+	 * Sets the {@link DownloadCache} from which files are installed.
+	 * Files that are not in the cache are added to it once they have been downloaded.
+	 *
+	 * @param cache a {@link DownloadCache}, or {@code null} if files should always be
+	 * downloaded.
+	 * @return this {@link ModpackInstaller}.
+	 */
+	public ModpackInstaller downloadCache(@Nullable DownloadCache cache) {
+		downloadCache = cache;
+		return this;
+	}
+
+	/**
+	 * Resolves the modpack's files and downloads them into the directory.
+	 *
+	 * @return a {@link List} containing the {@link Path}s to the modpack's files.
+	 * @throws CurseException if a file cannot be resolved or downloaded.
+	 */
+	public List<Path> install() throws CurseException {
+		return download(modpack.files(resolveOptions));
+	}
+
+	/**
+	 * Upgrades an installation of another version of the modpack to this modpack.
+	 * Files that are not in this modpack are deleted from the directory, and only files that are
+	 * not in the installed modpack are downloaded.
+	 * If the upgrade fails, it can simply be run again.
+	 *
+	 * @param installedModpack the {@link CurseModpack} whose files are in the directory.
+	 * @return a {@link ModpackDiff} that describes the changes that were made.
+	 * @throws CurseException if a file cannot be resolved, deleted or downloaded.
+	 */
+	public ModpackDiff upgrade(CurseModpack installedModpack) throws CurseException {
+		final ModpackDiff diff = ModpackDiff.of(installedModpack, modpack);
+
+		if (diff.isEmpty()) {
+			return diff;
+		}
+
+		//The names of the obsolete files are only known once they have been resolved.
+		//They are deleted before the new files are downloaded in case a new file has the same
+		//name as an obsolete file.
+		for (CurseFile file : FileResolver.resolve(diff.obsoleteFiles(), resolveOptions)) {
+			final Path path = path(file);
+
+			try {
+				Files.deleteIfExists(path);
+			} catch (IOException ex) {
+				throw new CurseException("Failed to delete file: " + path, ex);
+			}
+		}
+
+		download(FileResolver.resolve(diff.newFiles(), resolveOptions));
+		return diff;
+	}
+
+	private List<Path> download(CurseFiles<CurseFile> files) throws CurseException {
+		final List<FileDownload> downloads = new ArrayList<>(files.size());
+
+		for (CurseFile file : files) {
+			downloads.add(
+					new FileDownload(file.id(), file.downloadURL(), path(file), file.fileSize())
+			);
+		}
+
+		final Path normalizedDirectory = directory.toAbsolutePath().normalize();
+
+		try {
+			Files.createDirectories(normalizedDirectory);
+		} catch (IOException ex) {
+			throw new CurseException("Failed to create directory: " + normalizedDirectory, ex);
+		}
+
+		return FileDownload.downloadAll(downloads, parallelism, CLIENT, downloadCache);
+	}
+
+	private Path path(CurseFile file) throws CurseException {
+		final Path normalizedDirectory = directory.toAbsolutePath().normalize();
+		final Path path = normalizedDirectory.resolve(file.nameOnDisk()).normalize();
+
+		//File names are provided by CurseForge, so we make sure that they cannot be used to
+		//write outside of the directory.
+		if (!normalizedDirectory.equals(path.getParent())) {
+			throw new CurseException("Invalid file name: " + file.nameOnDisk());
+		}
+
+		return path;
+	}
+}
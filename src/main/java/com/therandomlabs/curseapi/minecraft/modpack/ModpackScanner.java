@@ -0,0 +1,213 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.CurseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans large numbers of modpack ZIP files in parallel.
+ * <p>
+ * Each manifest is parsed token by token straight from its ZIP file without being extracted,
+ * and is reduced to a {@link ScannedModpack}, which is passed to a consumer.
+ * Archives are scanned on a {@link ForkJoinPool}, so the consumer may be called concurrently
+ * from multiple threads and should be thread-safe.
+ */
+public final class ModpackScanner {
+	/**
+	 * A listener that is notified whenever a modpack ZIP file cannot be scanned.
+	 */
+	@FunctionalInterface
+	public interface ErrorListener {
+		/**
+		 * Called when a modpack ZIP file cannot be scanned.
+		 * This method may be called concurrently from multiple threads.
+		 *
+		 * @param archive a {@link Path} to the modpack ZIP file.
+		 * @param exception the {@link CurseException} that was thrown while the archive was
+		 * being scanned.
+		 */
+		void scanFailed(Path archive, CurseException exception);
+	}
+
+	/**
+	 * The default maximum number of archives that are scanned concurrently.
+	 */
+	public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+	private static final Logger logger = LoggerFactory.getLogger(ModpackScanner.class);
+
+	private int parallelism = DEFAULT_PARALLELISM;
+	private ErrorListener errorListener =
+			(archive, ex) -> logger.warn("Failed to scan modpack: {}", archive, ex);
+
+	/**
+	 * Returns the maximum number of archives that are scanned concurrently.
+	 *
+	 * @return the maximum number of archives that are scanned concurrently.
+	 */
+	public int parallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the maximum number of archives that are scanned concurrently.
+	 *
+	 * @param parallelism a positive integer.
+	 * @return this {@link ModpackScanner}.
+	 */
+	public ModpackScanner parallelism(int parallelism) {
+		Preconditions.checkArgument(parallelism > 0, "parallelism should be positive");
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Returns the {@link ErrorListener} that is notified when an archive cannot be scanned.
+	 * By default, failures are logged and the archive is skipped.
+	 *
+	 * @return the {@link ErrorListener} that is notified when an archive cannot be scanned.
+	 */
+	public ErrorListener errorListener() {
+		return errorListener;
+	}
+
+	/**
+	 * Sets the {@link ErrorListener} that is notified when an archive cannot be scanned.
+	 *
+	 * @param listener an {@link ErrorListener}.
+	 * @return this {@link ModpackScanner}.
+	 */
+	public ModpackScanner errorListener(ErrorListener listener) {
+		Preconditions.checkNotNull(listener, "listener should not be null");
+		errorListener = listener;
+		return this;
+	}
+
+	/**
+	 * Scans every ZIP file in the specified directory and its subdirectories.
+	 *
+	 * @param directory a {@link Path} to a directory.
+	 * @param consumer a {@link Consumer} that accepts each {@link ScannedModpack}.
+	 * @return the number of modpacks that were scanned successfully.
+	 * @throws CurseException if the directory cannot be read.
+	 */
+	public int scan(Path directory, Consumer<? super ScannedModpack> consumer)
+			throws CurseException {
+		Preconditions.checkNotNull(directory, "directory should not be null");
+
+		final List<Path> archives;
+
+		try (Stream<Path> stream = Files.walk(directory)) {
+			archives = stream.filter(
+					path -> path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip")
+			).filter(Files::isRegularFile).collect(Collectors.toList());
+		} catch (IOException ex) {
+			throw new CurseException("Failed to list modpacks in directory: " + directory, ex);
+		}
+
+		return scan(archives, consumer);
+	}
+
+	/**
+	 * Scans the specified modpack ZIP files.
+	 *
+	 * @param archives a {@link Collection} of {@link Path}s to modpack ZIP files.
+	 * @param consumer a {@link Consumer} that accepts each {@link ScannedModpack}.
+	 * @return the number of modpacks that were scanned successfully.
+	 * @throws CurseException if the scan is interrupted.
+	 */
+	public int scan(Collection<Path> archives, Consumer<? super ScannedModpack> consumer)
+			throws CurseException {
+		Preconditions.checkNotNull(archives, "archives should not be null");
+		Preconditions.checkNotNull(consumer, "consumer should not be null");
+
+		final AtomicInteger scanned = new AtomicInteger();
+		final List<Callable<Void>> tasks = new ArrayList<>(archives.size());
+
+		for (Path archive : archives) {
+			tasks.add(() -> {
+				final ScannedModpack modpack;
+
+				try {
+					modpack = ScannedModpack.of(archive, DefaultCurseModpack.fromZip(archive));
+				} catch (CurseException ex) {
+					errorListener.scanFailed(archive, ex);
+					return null;
+				}
+
+				consumer.accept(modpack);
+				scanned.incrementAndGet();
+				return null;
+			});
+		}
+
+		final ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+		try {
+			for (Future<Void> future : pool.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (ExecutionException ex) {
+			//Errors that occur while reading archives are passed to the ErrorListener, so this
+			//can only be an exception thrown by the consumer or the listener.
+			final Throwable cause = ex.getCause();
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+
+			throw new CurseException("Failed to scan modpacks", cause);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new CurseException("Interrupted while scanning modpacks", ex);
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return scanned.get();
+	}
+}
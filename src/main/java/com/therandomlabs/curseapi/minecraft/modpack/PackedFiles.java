@@ -0,0 +1,188 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.file.CurseFiles;
+
+//A compact list of modpack files. Each file is packed into a single long containing its project
+//ID in the upper 32 bits and its file ID in the lower 32 bits, and files that are not required
+//are recorded in a BitSet, which allocates nothing if every file is required.
+//This costs 8 bytes and 1 bit per file, whereas a CurseFiles costs a tree node and a
+//BasicCurseFile object per file.
+final class PackedFiles {
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private long[] files;
+	private final BitSet optional = new BitSet();
+	private int size;
+
+	PackedFiles() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	PackedFiles(int capacity) {
+		files = new long[capacity];
+	}
+
+	static PackedFiles of(Collection<? extends BasicCurseFile> basicFiles) {
+		final PackedFiles packedFiles = new PackedFiles(basicFiles.size());
+
+		for (BasicCurseFile file : basicFiles) {
+			packedFiles.add(
+					file.projectID(), file.id(), DefaultCurseModpack.FileInfo.isRequired(file)
+			);
+		}
+
+		packedFiles.sort();
+		return packedFiles;
+	}
+
+	static long pack(int projectID, int fileID) {
+		return ((long) projectID << 32) | (fileID & 0xFFFFFFFFL);
+	}
+
+	static int projectID(long file) {
+		return (int) (file >>> 32);
+	}
+
+	static int fileID(long file) {
+		return (int) file;
+	}
+
+	void add(int projectID, int fileID, boolean required) {
+		if (size == files.length) {
+			files = Arrays.copyOf(files, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+		}
+
+		optional.set(size, !required);
+		files[size++] = pack(projectID, fileID);
+	}
+
+	int size() {
+		return size;
+	}
+
+	long get(int index) {
+		return files[index];
+	}
+
+	int projectID(int index) {
+		return projectID(files[index]);
+	}
+
+	int fileID(int index) {
+		return fileID(files[index]);
+	}
+
+	boolean isRequired(int index) {
+		return !optional.get(index);
+	}
+
+	boolean matches(Collection<? extends BasicCurseFile> basicFiles) {
+		if (basicFiles.size() != size) {
+			return false;
+		}
+
+		int index = 0;
+
+		for (BasicCurseFile file : basicFiles) {
+			if (files[index] != pack(file.projectID(), file.id()) ||
+					isRequired(index) != DefaultCurseModpack.FileInfo.isRequired(file)) {
+				return false;
+			}
+
+			index++;
+		}
+
+		return true;
+	}
+
+	//Sorts files into the same order as a CurseFiles (newest file ID first), removes files with
+	//duplicate file IDs, keeping the first occurrence as CurseFiles#add would, and trims the
+	//backing array. This ensures that the serialized files are the same regardless of whether
+	//they have been through a CurseFiles.
+	void sort() {
+		if (!isSorted()) {
+			//Each key contains the inverted file ID in the upper 32 bits so that newer files
+			//come first and the original index in the lower 32 bits so that the sort is stable.
+			final long[] keys = new long[size];
+
+			for (int i = 0; i < size; i++) {
+				keys[i] = ((long) ~fileID(i) << 32) | i;
+			}
+
+			Arrays.sort(keys);
+
+			final long[] sortedFiles = new long[size];
+			final BitSet sortedOptional = new BitSet();
+			int sortedSize = 0;
+
+			for (int i = 0; i < size; i++) {
+				final int index = (int) keys[i];
+
+				if (sortedSize != 0 && fileID(sortedFiles[sortedSize - 1]) == fileID(index)) {
+					continue;
+				}
+
+				sortedOptional.set(sortedSize, optional.get(index));
+				sortedFiles[sortedSize++] = files[index];
+			}
+
+			files = sortedFiles;
+			optional.clear();
+			optional.or(sortedOptional);
+			size = sortedSize;
+		}
+
+		if (size != files.length) {
+			files = Arrays.copyOf(files, size);
+		}
+	}
+
+	private boolean isSorted() {
+		for (int i = 1; i < size; i++) {
+			if (fileID(i - 1) <= fileID(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	CurseFiles<BasicCurseFile> toCurseFiles() {
+		final CurseFiles<BasicCurseFile> curseFiles = new CurseFiles<>();
+
+		for (int i = 0; i < size; i++) {
+			curseFiles.add(new DefaultCurseModpack.FileInfo(
+					projectID(i), fileID(i), isRequired(i)
+			));
+		}
+
+		return curseFiles;
+	}
+}
@@ -0,0 +1,438 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+//Writes ZIP files whose entries are deflated in parallel.
+//java.util.zip.ZipOutputStream can only deflate on the calling thread, so this class writes the
+//ZIP format itself. Entries are split into blocks that are deflated independently in the same
+//way as pigz: every block but the last of an entry ends with a sync flush, so the compressed
+//blocks can simply be concatenated, and the last 32 KiB of the previous block is used as a
+//dictionary so that little compression is lost. Blocks are written in order, and at most
+//a fixed number of blocks are held in memory at a time.
+final class ParallelZipWriter implements Closeable {
+	@FunctionalInterface
+	interface Source {
+		InputStream open() throws IOException;
+	}
+
+	static final int BLOCK_SIZE = 1 << 20;
+
+	private static final int DICTIONARY_SIZE = 1 << 15;
+
+	//Entries that may not fit in 32-bit sizes are written in the ZIP64 format. The margin allows
+	//for deflate's worst-case expansion of incompressible data.
+	private static final long ZIP64_THRESHOLD = 0xFF000000L;
+
+	private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+	private static final int LOCAL_HEADER = 0x04034b50;
+	private static final int DATA_DESCRIPTOR = 0x08074b50;
+	private static final int CENTRAL_HEADER = 0x02014b50;
+	private static final int ZIP64_END = 0x06064b50;
+	private static final int ZIP64_LOCATOR = 0x07064b50;
+	private static final int END = 0x06054b50;
+
+	//Bit 3 indicates that sizes and CRC-32s are written after the data, and bit 11 indicates
+	//UTF-8 names.
+	private static final int FLAGS = 0x0808;
+	private static final int DEFLATED = 8;
+
+	private static final class Entry {
+		final byte[] name;
+		final long dosTime;
+		final boolean zip64;
+		final CRC32 crc = new CRC32();
+		long offset;
+		long compressedSize;
+		long size;
+
+		Entry(String name, long lastModifiedTime, boolean zip64) {
+			this.name = name.getBytes(StandardCharsets.UTF_8);
+			dosTime = dosTime(lastModifiedTime);
+			this.zip64 = zip64;
+		}
+	}
+
+	private static final class Block {
+		final Entry entry;
+		final boolean first;
+		final boolean last;
+		final Future<byte[]> data;
+
+		Block(Entry entry, boolean first, boolean last, Future<byte[]> data) {
+			this.entry = entry;
+			this.first = first;
+			this.last = last;
+			this.data = data;
+		}
+	}
+
+	private final CountingOutputStream stream;
+	private final int compressionLevel;
+	private final int maximumPendingBlocks;
+	private final ExecutorService executor;
+	private final Deque<Block> pendingBlocks = new ArrayDeque<>();
+	private final List<Entry> entries = new ArrayList<>();
+
+	ParallelZipWriter(OutputStream stream, int compressionLevel, int parallelism) {
+		this.stream = new CountingOutputStream(stream);
+		this.compressionLevel = compressionLevel;
+		maximumPendingBlocks = parallelism * 2;
+		executor = Executors.newFixedThreadPool(
+				parallelism,
+				new ThreadFactoryBuilder().
+						setNameFormat("CurseAPI-Minecraft ZIP writer %d").
+						setDaemon(true).
+						build()
+		);
+	}
+
+	void write(String name, long size, long lastModifiedTime, Source source) throws IOException {
+		final Entry entry = new Entry(name, lastModifiedTime, size >= ZIP64_THRESHOLD);
+		byte[] dictionary = null;
+		boolean first = true;
+
+		try (InputStream input = source.open()) {
+			byte[] block = new byte[BLOCK_SIZE];
+			int length = ByteStreams.read(input, block, 0, BLOCK_SIZE);
+
+			while (true) {
+				//A short read means that the end of the stream has been reached. Otherwise,
+				//we read the next block so that we know whether this block is the last one.
+				byte[] nextBlock = null;
+				int nextLength = 0;
+
+				if (length == BLOCK_SIZE) {
+					nextBlock = new byte[BLOCK_SIZE];
+					nextLength = ByteStreams.read(input, nextBlock, 0, BLOCK_SIZE);
+				}
+
+				final boolean last = nextLength == 0;
+				entry.crc.update(block, 0, length);
+				entry.size += length;
+
+				submit(entry, first, last, block, length, dictionary);
+
+				if (last) {
+					break;
+				}
+
+				dictionary = block;
+				block = nextBlock;
+				length = nextLength;
+				first = false;
+			}
+		}
+
+		if (!entry.zip64 && entry.size >= ZIP64_THRESHOLD) {
+			throw new ZipException("Entry is larger than expected: " + name);
+		}
+
+		entries.add(entry);
+	}
+
+	//Writes the remaining blocks and the central directory. The underlying stream is flushed
+	//but not closed.
+	void finish() throws IOException {
+		while (!pendingBlocks.isEmpty()) {
+			writeBlock(pendingBlocks.removeFirst());
+		}
+
+		writeCentralDirectory();
+		stream.flush();
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	private void submit(
+			Entry entry, boolean first, boolean last, byte[] block, int length,
+			byte[] dictionary
+	) throws IOException {
+		final Future<byte[]> data =
+				executor.submit(() -> deflate(block, length, dictionary, last));
+		pendingBlocks.addLast(new Block(entry, first, last, data));
+
+		while (pendingBlocks.size() > maximumPendingBlocks) {
+			writeBlock(pendingBlocks.removeFirst());
+		}
+	}
+
+	private byte[] deflate(byte[] block, int length, byte[] dictionary, boolean last) {
+		final Deflater deflater = new Deflater(compressionLevel, true);
+
+		try {
+			if (dictionary != null) {
+				deflater.setDictionary(
+						dictionary, BLOCK_SIZE - DICTIONARY_SIZE, DICTIONARY_SIZE
+				);
+			}
+
+			deflater.setInput(block, 0, length);
+
+			final ByteArrayOutputStream output = new ByteArrayOutputStream(length / 2 + 64);
+			final byte[] buffer = new byte[8192];
+
+			if (last) {
+				deflater.finish();
+
+				while (!deflater.finished()) {
+					output.write(buffer, 0, deflater.deflate(buffer));
+				}
+			} else {
+				int deflated;
+
+				do {
+					deflated = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+					output.write(buffer, 0, deflated);
+				} while (deflated == buffer.length);
+			}
+
+			return output.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private void writeBlock(Block block) throws IOException {
+		final Entry entry = block.entry;
+		final byte[] data;
+
+		try {
+			data = block.data.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while deflating entry", ex);
+		} catch (ExecutionException ex) {
+			throw new IOException("Failed to deflate entry", ex.getCause());
+		}
+
+		if (block.first) {
+			entry.offset = stream.count;
+			writeLocalHeader(entry);
+		}
+
+		stream.write(data);
+		entry.compressedSize += data.length;
+
+		if (block.last) {
+			if (!entry.zip64 && entry.compressedSize >= ZIP64_MAGIC) {
+				throw new ZipException("Compressed entry is larger than expected");
+			}
+
+			writeDataDescriptor(entry);
+		}
+	}
+
+	private void writeLocalHeader(Entry entry) throws IOException {
+		final ByteBuffer header = buffer(30 + entry.name.length + (entry.zip64 ? 20 : 0));
+		header.putInt(LOCAL_HEADER);
+		header.putShort((short) (entry.zip64 ? 45 : 20));
+		header.putShort((short) FLAGS);
+		header.putShort((short) DEFLATED);
+		header.putInt((int) entry.dosTime);
+		//The CRC-32 and sizes are written in the data descriptor.
+		header.putInt(0);
+		header.putInt(entry.zip64 ? (int) ZIP64_MAGIC : 0);
+		header.putInt(entry.zip64 ? (int) ZIP64_MAGIC : 0);
+		header.putShort((short) entry.name.length);
+		header.putShort((short) (entry.zip64 ? 20 : 0));
+		header.put(entry.name);
+
+		if (entry.zip64) {
+			header.putShort((short) 1);
+			header.putShort((short) 16);
+			header.putLong(0L);
+			header.putLong(0L);
+		}
+
+		stream.write(header.array());
+	}
+
+	private void writeDataDescriptor(Entry entry) throws IOException {
+		final ByteBuffer descriptor = buffer(entry.zip64 ? 24 : 16);
+		descriptor.putInt(DATA_DESCRIPTOR);
+		descriptor.putInt((int) entry.crc.getValue());
+
+		if (entry.zip64) {
+			descriptor.putLong(entry.compressedSize);
+			descriptor.putLong(entry.size);
+		} else {
+			descriptor.putInt((int) entry.compressedSize);
+			descriptor.putInt((int) entry.size);
+		}
+
+		stream.write(descriptor.array());
+	}
+
+	private void writeCentralDirectory() throws IOException {
+		final long centralDirectoryOffset = stream.count;
+
+		for (Entry entry : entries) {
+			final boolean zip64Size = entry.size >= ZIP64_MAGIC ||
+					entry.compressedSize >= ZIP64_MAGIC;
+			final boolean zip64Offset = entry.offset >= ZIP64_MAGIC;
+			final int extraLength = zip64Size || zip64Offset ?
+					4 + (zip64Size ? 16 : 0) + (zip64Offset ? 8 : 0) : 0;
+			final int version = extraLength == 0 ? 20 : 45;
+
+			final ByteBuffer header = buffer(46 + entry.name.length + extraLength);
+			header.putInt(CENTRAL_HEADER);
+			header.putShort((short) version);
+			header.putShort((short) version);
+			header.putShort((short) FLAGS);
+			header.putShort((short) DEFLATED);
+			header.putInt((int) entry.dosTime);
+			header.putInt((int) entry.crc.getValue());
+			header.putInt((int) (zip64Size ? ZIP64_MAGIC : entry.compressedSize));
+			header.putInt((int) (zip64Size ? ZIP64_MAGIC : entry.size));
+			header.putShort((short) entry.name.length);
+			header.putShort((short) extraLength);
+			//Comment length, disk number, internal attributes and external attributes.
+			header.putShort((short) 0);
+			header.putShort((short) 0);
+			header.putShort((short) 0);
+			header.putInt(0);
+			header.putInt((int) (zip64Offset ? ZIP64_MAGIC : entry.offset));
+			header.put(entry.name);
+
+			if (extraLength != 0) {
+				header.putShort((short) 1);
+				header.putShort((short) (extraLength - 4));
+
+				if (zip64Size) {
+					header.putLong(entry.size);
+					header.putLong(entry.compressedSize);
+				}
+
+				if (zip64Offset) {
+					header.putLong(entry.offset);
+				}
+			}
+
+			stream.write(header.array());
+		}
+
+		final long centralDirectorySize = stream.count - centralDirectoryOffset;
+		final boolean zip64 = entries.size() >= 0xFFFF ||
+				centralDirectoryOffset >= ZIP64_MAGIC || centralDirectorySize >= ZIP64_MAGIC;
+
+		if (zip64) {
+			final long zip64EndOffset = stream.count;
+			final ByteBuffer zip64End = buffer(76);
+			zip64End.putInt(ZIP64_END);
+			zip64End.putLong(44L);
+			zip64End.putShort((short) 45);
+			zip64End.putShort((short) 45);
+			zip64End.putInt(0);
+			zip64End.putInt(0);
+			zip64End.putLong(entries.size());
+			zip64End.putLong(entries.size());
+			zip64End.putLong(centralDirectorySize);
+			zip64End.putLong(centralDirectoryOffset);
+			zip64End.putInt(ZIP64_LOCATOR);
+			zip64End.putInt(0);
+			zip64End.putLong(zip64EndOffset);
+			zip64End.putInt(1);
+			stream.write(zip64End.array());
+		}
+
+		final ByteBuffer end = buffer(22);
+		end.putInt(END);
+		end.putShort((short) 0);
+		end.putShort((short) 0);
+		end.putShort((short) (zip64 ? 0xFFFF : entries.size()));
+		end.putShort((short) (zip64 ? 0xFFFF : entries.size()));
+		end.putInt((int) (zip64 ? ZIP64_MAGIC : centralDirectorySize));
+		end.putInt((int) (zip64 ? ZIP64_MAGIC : centralDirectoryOffset));
+		end.putShort((short) 0);
+		stream.write(end.array());
+	}
+
+	private static ByteBuffer buffer(int size) {
+		return ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private static long dosTime(long time) {
+		final LocalDateTime dateTime =
+				LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+
+		if (dateTime.getYear() < 1980) {
+			return (1 << 21) | (1 << 16);
+		}
+
+		return (dateTime.getYear() - 1980) << 25 | dateTime.getMonthValue() << 21 |
+				dateTime.getDayOfMonth() << 16 | dateTime.getHour() << 11 |
+				dateTime.getMinute() << 5 | dateTime.getSecond() >> 1;
+	}
+
+	private static final class CountingOutputStream extends BufferedOutputStream {
+		long count;
+
+		CountingOutputStream(OutputStream stream) {
+			super(stream, 1 << 16);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			super.write(bytes, offset, length);
+			count += length;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			super.write(b);
+			count++;
+		}
+	}
+}
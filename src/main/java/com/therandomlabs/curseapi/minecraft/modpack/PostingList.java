@@ -0,0 +1,207 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+//A sorted set of non-negative ints, which ModpackIndex uses to record the ordinals of the
+//modpacks that contain a file or project. As in a roaring bitmap, each list is stored in
+//whichever of two containers is smaller: a sorted int[] for sparse lists, or a long[] bitmap
+//for dense lists. Switching back to an array requires the list to be half as dense as
+//switching to a bitmap, so that lists near the threshold do not switch on every change.
+final class PostingList {
+	private static final int DEFAULT_CAPACITY = 4;
+
+	@Nullable
+	private int[] array = new int[DEFAULT_CAPACITY];
+	@Nullable
+	private long[] bitmap;
+	private int size;
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	boolean contains(int value) {
+		if (bitmap != null) {
+			final int word = value >>> 6;
+			return word < bitmap.length && (bitmap[word] & (1L << value)) != 0L;
+		}
+
+		return Arrays.binarySearch(array, 0, size, value) >= 0;
+	}
+
+	boolean add(int value) {
+		if (bitmap != null) {
+			final int word = value >>> 6;
+
+			if (word >= bitmap.length) {
+				bitmap = Arrays.copyOf(bitmap, Math.max(word + 1, bitmap.length * 2));
+			}
+
+			if ((bitmap[word] & (1L << value)) != 0L) {
+				return false;
+			}
+
+			bitmap[word] |= 1L << value;
+			size++;
+		} else {
+			int index = Arrays.binarySearch(array, 0, size, value);
+
+			if (index >= 0) {
+				return false;
+			}
+
+			index = -index - 1;
+
+			if (size == array.length) {
+				array = Arrays.copyOf(array, size + (size >> 1) + 1);
+			}
+
+			System.arraycopy(array, index, array, index + 1, size - index);
+			array[index] = value;
+			size++;
+		}
+
+		optimize();
+		return true;
+	}
+
+	boolean remove(int value) {
+		if (bitmap != null) {
+			final int word = value >>> 6;
+
+			if (word >= bitmap.length || (bitmap[word] & (1L << value)) == 0L) {
+				return false;
+			}
+
+			bitmap[word] &= ~(1L << value);
+		} else {
+			final int index = Arrays.binarySearch(array, 0, size, value);
+
+			if (index < 0) {
+				return false;
+			}
+
+			System.arraycopy(array, index + 1, array, index, size - index - 1);
+		}
+
+		size--;
+		optimize();
+		return true;
+	}
+
+	int intersectionSize(PostingList list) {
+		if (bitmap != null && list.bitmap != null) {
+			final int length = Math.min(bitmap.length, list.bitmap.length);
+			int count = 0;
+
+			for (int i = 0; i < length; i++) {
+				count += Long.bitCount(bitmap[i] & list.bitmap[i]);
+			}
+
+			return count;
+		}
+
+		if (bitmap != null) {
+			return list.intersectionSize(this);
+		}
+
+		int count = 0;
+
+		if (list.bitmap != null) {
+			for (int i = 0; i < size; i++) {
+				if (list.contains(array[i])) {
+					count++;
+				}
+			}
+
+			return count;
+		}
+
+		for (int i = 0, j = 0; i < size && j < list.size; ) {
+			if (array[i] < list.array[j]) {
+				i++;
+			} else if (array[i] > list.array[j]) {
+				j++;
+			} else {
+				count++;
+				i++;
+				j++;
+			}
+		}
+
+		return count;
+	}
+
+	void forEach(IntConsumer consumer) {
+		if (bitmap == null) {
+			for (int i = 0; i < size; i++) {
+				consumer.accept(array[i]);
+			}
+
+			return;
+		}
+
+		for (int i = 0; i < bitmap.length; i++) {
+			for (long word = bitmap[i]; word != 0L; word &= word - 1L) {
+				consumer.accept((i << 6) + Long.numberOfTrailingZeros(word));
+			}
+		}
+	}
+
+	private void optimize() {
+		if (bitmap == null) {
+			//An array costs half a word per value, and a bitmap costs a word per 64 values up
+			//to the largest value.
+			if (size != 0 && size > ((array[size - 1] >>> 6) + 1) * 2) {
+				bitmap = new long[(array[size - 1] >>> 6) + 1];
+
+				for (int i = 0; i < size; i++) {
+					bitmap[array[i] >>> 6] |= 1L << array[i];
+				}
+
+				array = null;
+			}
+		} else if (size < bitmap.length) {
+			array = new int[Math.max(DEFAULT_CAPACITY, size)];
+			int index = 0;
+
+			for (int i = 0; i < bitmap.length; i++) {
+				for (long word = bitmap[i]; word != 0L; word &= word - 1L) {
+					array[index++] = (i << 6) + Long.numberOfTrailingZeros(word);
+				}
+			}
+
+			bitmap = null;
+		}
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.RateLimiter;
+import com.therandomlabs.curseapi.file.CurseFile;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Options that control how {@link CurseModpack#files(ResolveOptions)} resolves a modpack's
+ * files.
+ */
+public final class ResolveOptions {
+	/**
+	 * A listener that is notified whenever a modpack file is resolved.
+	 */
+	@FunctionalInterface
+	public interface ProgressListener {
+		/**
+		 * Called when a modpack file has been resolved.
+		 * This method may be called concurrently from multiple threads.
+		 *
+		 * @param file the resolved {@link CurseFile}.
+		 * @param resolvedFiles the number of files that have been resolved so far.
+		 * @param totalFiles the total number of files that are being resolved.
+		 */
+		void fileResolved(CurseFile file, int resolvedFiles, int totalFiles);
+	}
+
+	/**
+	 * The default maximum number of files that are resolved concurrently.
+	 */
+	public static final int DEFAULT_PARALLELISM = 8;
+
+	/**
+	 * The default maximum number of files that are retrieved in a single request.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 250;
+
+	private int parallelism = DEFAULT_PARALLELISM;
+	private int batchSize = DEFAULT_BATCH_SIZE;
+	@Nullable
+	private Executor executor;
+	private double requestsPerSecond;
+	//This is shared by every resolution that uses these options.
+	@Nullable
+	private RateLimiter rateLimiter;
+	@Nullable
+	private Duration timeout;
+	@Nullable
+	private ProgressListener progressListener;
+
+	/**
+	 * Returns the maximum number of files that are resolved concurrently.
+	 *
+	 * @return the maximum number of files that are resolved concurrently.
+	 */
+	public int parallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the maximum number of files that are resolved concurrently.
+	 * This limit also applies when an {@link Executor} is specified.
+	 *
+	 * @param parallelism a positive integer.
+	 * @return this {@link ResolveOptions}.
+	 */
+	public ResolveOptions parallelism(int parallelism) {
+		Preconditions.checkArgument(parallelism > 0, "parallelism should be positive");
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of files that are retrieved in a single request.
+	 *
+	 * @return the maximum number of files that are retrieved in a single request.
+	 */
+	public int batchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of files that are retrieved in a single request.
+	 * Files are retrieved in batches of this size from forgesvc's bulk file endpoint,
+	 * and up to {@link #parallelism()} batches are retrieved concurrently.
+	 * Files that cannot be retrieved in a batch are retrieved individually.
+	 *
+	 * @param batchSize a positive integer, or {@code 1} if every file should be retrieved
+	 * individually.
+	 * @return this {@link ResolveOptions}.
+	 */
+	public ResolveOptions batchSize(int batchSize) {
+		Preconditions.checkArgument(batchSize > 0, "batchSize should be positive");
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * Returns the {@link Executor} on which files are resolved.
+	 *
+	 * @return an {@link Optional} containing the {@link Executor} on which files are resolved,
+	 * or {@link Optional#empty()} if a temporary thread pool is used.
+	 */
+	public Optional<Executor> executor() {
+		return Optional.ofNullable(executor);
+	}
+
+	/**
+	 * Sets the {@link Executor} on which files are resolved.
+	 *
+	 * @param executor an {@link Executor}, or {@code null} if a temporary thread pool containing
+	 * {@link #parallelism()} threads should be used.
+	 * @return this {@link ResolveOptions}.
+	 */
+	public ResolveOptions executor(@Nullable Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of requests per second that are sent to CurseForge.
+	 * A request for a batch of files counts as a single request.
+	 *
+	 * @return the maximum number of requests per second that are sent to CurseForge,
+	 * or {@code 0.0} if requests are not rate limited.
+	 */
+	public synchronized double requestsPerSecond() {
+		return requestsPerSecond;
+	}
+
+	/**
+	 * Sets the maximum number of requests per second that are sent to CurseForge.
+	 * Because every file is retrieved from the same host, this is a per-host rate limit.
+	 * <p>
+	 * The limit is shared by every resolution that uses this {@link ResolveOptions}, including
+	 * concurrent resolutions, so the same instance should be reused to limit the total rate of
+	 * requests. Resolutions that use different instances are limited independently.
+	 *
+	 * @param requestsPerSecond a positive number, or {@code 0.0} if requests should not be
+	 * rate limited.
+	 * @return this {@link ResolveOptions}.
+	 */
+	public synchronized ResolveOptions requestsPerSecond(double requestsPerSecond) {
+		Preconditions.checkArgument(
+				requestsPerSecond >= 0.0, "requestsPerSecond should not be negative"
+		);
+		this.requestsPerSecond = requestsPerSecond;
+
+		if (requestsPerSecond == 0.0) {
+			rateLimiter = null;
+		} else if (rateLimiter == null) {
+			rateLimiter = RateLimiter.create(requestsPerSecond);
+		} else {
+			//Resolutions that are in progress adopt the new rate.
+			rateLimiter.setRate(requestsPerSecond);
+		}
+
+		return this;
+	}
+
+	//Returns null if requests are not rate limited.
+	//This method is called by FileResolver.
+	@Nullable
+	synchronized RateLimiter rateLimiter() {
+		return rateLimiter;
+	}
+
+	/**
+	 * Returns the amount of time after which resolution is abandoned.
+	 *
+	 * @return an {@link Optional} containing the amount of time after which resolution is
+	 * abandoned, or {@link Optional#empty()} if there is no timeout.
+	 */
+	public Optional<Duration> timeout() {
+		return Optional.ofNullable(timeout);
+	}
+
+	/**
+	 * Sets the amount of time after which resolution is abandoned.
+	 *
+	 * @param timeout a {@link Duration}, or {@code null} if there should be no timeout.
+	 * @return this {@link ResolveOptions}.
+	 */
+	public ResolveOptions timeout(@Nullable Duration timeout) {
+		Preconditions.checkArgument(
+				timeout == null || !timeout.isNegative(), "timeout should not be negative"
+		);
+		this.timeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Returns the {@link ProgressListener} that is notified whenever a file is resolved.
+	 *
+	 * @return an {@link Optional} containing the {@link ProgressListener} that is notified
+	 * whenever a file is resolved, or {@link Optional#empty()} if there is none.
+	 */
+	public Optional<ProgressListener> progressListener() {
+		return Optional.ofNullable(progressListener);
+	}
+
+	/**
+	 * Sets the {@link ProgressListener} that is notified whenever a file is resolved.
+	 *
+	 * @param listener a {@link ProgressListener}, or {@code null}.
+	 * @return this {@link ResolveOptions}.
+	 */
+	public ResolveOptions progressListener(@Nullable ProgressListener listener) {
+		progressListener = listener;
+		return this;
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.therandomlabs.curseapi.minecraft.MCVersion;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A lightweight summary of a modpack manifest produced by {@link ModpackScanner}.
+ * <p>
+ * Files are stored as a sorted array of packed project and file IDs rather than as
+ * {@link com.therandomlabs.curseapi.file.BasicCurseFile}s, so a summary costs 8 bytes per file,
+ * and file and project lookups are binary searches.
+ */
+public final class ScannedModpack {
+	private final Path archive;
+	private final String name;
+	private final String version;
+	private final String author;
+	private final MCVersion mcVersion;
+	@Nullable
+	private final String modLoader;
+	private final long[] files;
+
+	private ScannedModpack(Path archive, DefaultCurseModpack modpack) {
+		this.archive = archive;
+		name = modpack.name;
+		version = modpack.version;
+		author = modpack.author;
+		mcVersion = modpack.mcVersion();
+		modLoader = primaryModLoader(modpack);
+
+		final PackedFiles packedFiles = modpack.packedFiles();
+		files = new long[packedFiles.size()];
+
+		for (int i = 0; i < files.length; i++) {
+			files[i] = packedFiles.get(i);
+		}
+
+		Arrays.sort(files);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(this).
+				add("archive", archive).
+				add("name", name).
+				add("version", version).
+				add("mcVersion", mcVersion).
+				add("modLoader", modLoader).
+				add("files", files.length).
+				toString();
+	}
+
+	/**
+	 * Returns the {@link Path} to the archive from which this modpack was read.
+	 *
+	 * @return the {@link Path} to the archive from which this modpack was read.
+	 */
+	public Path archive() {
+		return archive;
+	}
+
+	/**
+	 * Returns this modpack's name.
+	 *
+	 * @return this modpack's name.
+	 */
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * Returns this modpack's version.
+	 *
+	 * @return this modpack's version.
+	 */
+	public String version() {
+		return version;
+	}
+
+	/**
+	 * Returns this modpack's author.
+	 *
+	 * @return this modpack's author.
+	 */
+	public String author() {
+		return author;
+	}
+
+	/**
+	 * Returns this modpack's Minecraft version.
+	 *
+	 * @return this modpack's Minecraft version.
+	 */
+	public MCVersion mcVersion() {
+		return mcVersion;
+	}
+
+	/**
+	 * Returns the ID of this modpack's primary mod loader, e.g. {@code forge-14.23.5.2847}.
+	 *
+	 * @return an {@link Optional} containing the ID of this modpack's primary mod loader,
+	 * or {@link Optional#empty()} if this modpack does not specify a mod loader.
+	 */
+	public Optional<String> modLoader() {
+		return Optional.ofNullable(modLoader);
+	}
+
+	/**
+	 * Returns the number of files in this modpack.
+	 *
+	 * @return the number of files in this modpack.
+	 */
+	public int fileCount() {
+		return files.length;
+	}
+
+	/**
+	 * Returns the project ID of the file at the specified index.
+	 * Files are sorted by project ID and then by file ID.
+	 *
+	 * @param index an index between {@code 0} and {@link #fileCount()}.
+	 * @return the project ID of the file at the specified index.
+	 */
+	public int projectID(int index) {
+		Preconditions.checkElementIndex(index, files.length);
+		return PackedFiles.projectID(files[index]);
+	}
+
+	/**
+	 * Returns the file ID of the file at the specified index.
+	 * Files are sorted by project ID and then by file ID.
+	 *
+	 * @param index an index between {@code 0} and {@link #fileCount()}.
+	 * @return the file ID of the file at the specified index.
+	 */
+	public int fileID(int index) {
+		Preconditions.checkElementIndex(index, files.length);
+		return PackedFiles.fileID(files[index]);
+	}
+
+	/**
+	 * Returns whether this modpack contains the specified file.
+	 *
+	 * @param projectID a project ID.
+	 * @param fileID a file ID.
+	 * @return {@code true} if this modpack contains the specified file,
+	 * or otherwise {@code false}.
+	 */
+	public boolean containsFile(int projectID, int fileID) {
+		return Arrays.binarySearch(files, PackedFiles.pack(projectID, fileID)) >= 0;
+	}
+
+	/**
+	 * Returns whether this modpack contains a file that belongs to the specified project.
+	 *
+	 * @param projectID a project ID.
+	 * @return {@code true} if this modpack contains a file that belongs to the specified project,
+	 * or otherwise {@code false}.
+	 */
+	public boolean containsProject(int projectID) {
+		//File IDs occupy the lower 32 bits, so the files of a project are sorted between the
+		//packed forms of file ID 0 and file ID -1.
+		final int index = Arrays.binarySearch(files, PackedFiles.pack(projectID, 0));
+		final int insertionPoint = index >= 0 ? index : -index - 1;
+		return insertionPoint < files.length &&
+				PackedFiles.projectID(files[insertionPoint]) == projectID;
+	}
+
+	//This method is called by ModpackIndex.
+	long[] packedFiles() {
+		return files;
+	}
+
+	//This method is called by ModpackScanner.
+	static ScannedModpack of(Path archive, DefaultCurseModpack modpack) {
+		return new ScannedModpack(archive, modpack);
+	}
+
+	@Nullable
+	private static String primaryModLoader(DefaultCurseModpack modpack) {
+		final List<DefaultCurseModpack.MinecraftInfo.ModLoaderInfo> modLoaders =
+				modpack.minecraft.modLoaders;
+
+		for (DefaultCurseModpack.MinecraftInfo.ModLoaderInfo modLoader : modLoaders) {
+			if (modLoader.primary) {
+				return modLoader.id;
+			}
+		}
+
+		return modLoaders.isEmpty() ? null : modLoaders.get(0).id;
+	}
+}
@@ -0,0 +1,266 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.util;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+import com.google.common.base.Preconditions;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An open addressing hash map from {@code long}s to non-null objects.
+ * <p>
+ * Keys are stored in a {@code long[]} and probed linearly, so unlike a
+ * {@code HashMap<Long, V>}, no {@link Long} or entry objects are allocated on insertion or
+ * lookup. {@code int} keys such as project and file IDs are widened to {@code long}s.
+ * Removed entries are filled by shifting later entries in the same probe sequence backwards,
+ * so no tombstones are needed.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <V> the type of the values.
+ */
+public final class LongObjectMap<V> {
+	/**
+	 * Accepts an entry of a {@link LongObjectMap}.
+	 *
+	 * @param <V> the type of the value.
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+		/**
+		 * Accepts an entry of a {@link LongObjectMap}.
+		 *
+		 * @param key a key.
+		 * @param value the value associated with the key.
+		 */
+		void accept(long key, V value);
+	}
+
+	private static final int MINIMUM_CAPACITY = 16;
+
+	private long[] keys;
+	private Object[] values;
+	private int size;
+
+	/**
+	 * Constructs an empty {@link LongObjectMap}.
+	 */
+	public LongObjectMap() {
+		this(MINIMUM_CAPACITY / 2);
+	}
+
+	/**
+	 * Constructs an empty {@link LongObjectMap} that can hold the specified number of entries
+	 * without being resized.
+	 *
+	 * @param expectedSize the expected number of entries.
+	 */
+	public LongObjectMap(int expectedSize) {
+		Preconditions.checkArgument(expectedSize >= 0, "expectedSize should not be negative");
+		//The load factor is kept at or below 0.5 so that probe sequences stay short.
+		final int capacity = Integer.highestOneBit(
+				Math.max(expectedSize, MINIMUM_CAPACITY / 2) * 2 - 1
+		) << 1;
+		keys = new long[capacity];
+		values = new Object[capacity];
+	}
+
+	/**
+	 * Returns the number of entries in this map.
+	 *
+	 * @return the number of entries in this map.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the value associated with the specified key.
+	 *
+	 * @param key a key.
+	 * @return the value associated with the specified key, or {@code null} if there is none.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		final int mask = keys.length - 1;
+
+		for (int i = index(key, mask); values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				return (V) values[i];
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Associates the specified value with the specified key.
+	 *
+	 * @param key a key.
+	 * @param value a non-null value.
+	 * @return the value that was previously associated with the specified key, or {@code null}
+	 * if there was none.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		Preconditions.checkNotNull(value, "value should not be null");
+		final int mask = keys.length - 1;
+		int i = index(key, mask);
+
+		for (; values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				final V previous = (V) values[i];
+				values[i] = value;
+				return previous;
+			}
+		}
+
+		keys[i] = key;
+		values[i] = value;
+
+		if (++size > keys.length >> 1) {
+			resize(keys.length << 1);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the value associated with the specified key, computing and associating it using
+	 * the specified function first if there is none.
+	 *
+	 * @param key a key.
+	 * @param function a {@link LongFunction} that returns a non-null value for a key.
+	 * @return the value associated with the specified key.
+	 */
+	public V computeIfAbsent(long key, LongFunction<V> function) {
+		V value = get(key);
+
+		if (value == null) {
+			value = function.apply(key);
+			put(key, value);
+		}
+
+		return value;
+	}
+
+	/**
+	 * Removes the entry with the specified key.
+	 *
+	 * @param key a key.
+	 * @return the value that was associated with the specified key, or {@code null} if there
+	 * was none.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		final int mask = keys.length - 1;
+		int i = index(key, mask);
+
+		for (; values[i] != null; i = (i + 1) & mask) {
+			if (keys[i] == key) {
+				break;
+			}
+		}
+
+		final V removed = (V) values[i];
+
+		if (removed == null) {
+			return null;
+		}
+
+		//Entries after the removed entry that would no longer be reachable from their home
+		//slots are moved into the gap.
+		int gap = i;
+
+		for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+			final int home = index(keys[j], mask);
+
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = keys[j];
+				values[gap] = values[j];
+				gap = j;
+			}
+		}
+
+		values[gap] = null;
+		size--;
+		return removed;
+	}
+
+	/**
+	 * Removes all entries from this map.
+	 */
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Performs the specified action for each entry in this map in an unspecified order.
+	 *
+	 * @param consumer an {@link EntryConsumer}.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(EntryConsumer<? super V> consumer) {
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] != null) {
+				consumer.accept(keys[i], (V) values[i]);
+			}
+		}
+	}
+
+	private void resize(int capacity) {
+		final long[] oldKeys = keys;
+		final Object[] oldValues = values;
+		final int mask = capacity - 1;
+
+		keys = new long[capacity];
+		values = new Object[capacity];
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != null) {
+				int j = index(oldKeys[i], mask);
+
+				while (values[j] != null) {
+					j = (j + 1) & mask;
+				}
+
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	private static int index(long key, int mask) {
+		//Keys such as sequential IDs and Minecraft version keys differ mostly in a few bits, so
+		//they are scrambled to avoid clustering.
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+}
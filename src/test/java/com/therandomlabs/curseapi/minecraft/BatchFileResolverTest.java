@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpServer;
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.file.CurseFiles;
+import com.therandomlabs.curseapi.util.RetrofitUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BatchFileResolverTest {
+	private static final String FILES_JSON = "{" +
+			"\"2803612\":[{\"id\":2803612,\"projectId\":285612,\"displayName\":\"File\"}]," +
+			"\"2839369\":[{\"id\":2839369,\"projectId\":1,\"displayName\":\"Wrong project\"}]}";
+
+	private final List<String> requests = new CopyOnWriteArrayList<>();
+	private HttpServer server;
+	private int status = 200;
+
+	@BeforeEach
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/api/v2/addon/files", exchange -> {
+			requests.add(exchange.getRequestMethod() + ' ' + new String(
+					ByteStreams.toByteArray(exchange.getRequestBody()), StandardCharsets.UTF_8
+			));
+
+			final byte[] response = FILES_JSON.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(status, response.length);
+
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(response);
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	public void filesShouldBeRetrievedInOneRequest() throws CurseException {
+		final CurseFiles<CurseFile> files = resolver().resolve(Arrays.asList(
+				new BasicCurseFile.Immutable(285612, 2803612),
+				new BasicCurseFile.Immutable(316059, 2839369),
+				new BasicCurseFile.Immutable(32274, 3)
+		));
+
+		assertThat(requests).containsExactly("POST [2803612,2839369,3]");
+		assertThat(files).hasSize(1);
+		assertThat(files.first().id()).isEqualTo(2803612);
+		assertThat(files.first().projectID()).isEqualTo(285612);
+		assertThat(files.first().displayName()).isEqualTo("File");
+		//Batched files should be the same CurseFile implementation that CurseAPI returns.
+		assertThat(files.first().getClass().getName()).
+				isEqualTo("com.therandomlabs.curseapi.forgesvc.ForgeSvcFile");
+	}
+
+	@Test
+	public void failedRequestShouldThrowCurseException() {
+		status = 500;
+		assertThatThrownBy(() -> resolver().resolve(
+				Arrays.asList(new BasicCurseFile.Immutable(285612, 2803612))
+		)).isInstanceOf(CurseException.class);
+	}
+
+	private BatchFileResolver resolver() {
+		final BatchFileResolver resolver = BatchFileResolver.create(RetrofitUtils.get(
+				"http://localhost:" + server.getAddress().getPort() + '/'
+		).create(ForgeSvcMinecraft.class));
+		assertThat(resolver).isNotNull();
+		return resolver;
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.therandomlabs.curseapi.minecraft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MCVersionCacheTest {
+	@Test
+	public void cachedVersionsShouldRetainSortIndexes(@TempDir Path tempDirectory) {
+		MCVersionCache.write(tempDirectory, Arrays.asList(
+				new MCVersion(2, "1.12.2"), new MCVersion(0, "1.12.1")
+		));
+
+		final MCVersionCache cache = MCVersionCache.read(tempDirectory);
+		assertThat(cache).isNotNull();
+		assertThat(cache.isStale(Duration.ofHours(1L))).isFalse();
+
+		final List<MCVersion> versions = cache.versions();
+		assertThat(versions).extracting(MCVersion::versionString).
+				containsExactly("1.12.2", "1.12.1");
+		assertThat(versions).extracting(MCVersion::getSortIndex).containsExactly(2L, 0L);
+	}
+
+	@Test
+	public void cachedVersionsShouldBeMergedWithLocalVersions(@TempDir Path tempDirectory) {
+		//The local MCVersion instances are registered first.
+		final List<MCVersion> releases = new ArrayList<>();
+
+		for (MCVersion version : MCVersions.getAll().descendingSet()) {
+			if (version.versionGroupOrdinal() >= 0 && !version.isSnapshot()) {
+				releases.add(version);
+			}
+		}
+
+		releases.add(0, new MCVersion(0L, "1.15.2"));
+		releases.add(0, new MCVersion(0L, "1.16"));
+		MCVersionCache.write(tempDirectory, releases);
+
+		CurseAPIMinecraft.versionCacheDirectory(tempDirectory);
+
+		try {
+			CurseAPIMinecraft.initialize();
+			//The provider may have already been initialized by another test.
+			ForgeSvcMinecraftProvider.loadVersions();
+		} finally {
+			CurseAPIMinecraft.versionCacheDirectory(null);
+		}
+
+		final MCVersion v1_15_2 = MCVersions.get("1.15.2");
+		final MCVersion v1_16 = MCVersions.get("1.16");
+		assertThat(MCVersions.getAll().subSet(MCVersions.V1_14, true, v1_16, true)).
+				containsSubsequence(
+						MCVersions.V1_14, MCVersions.V1_14_1, MCVersions.V1_15_1, v1_15_2, v1_16
+				);
+		assertThat(MCVersions.FORGE.newerThan(v1_16)).isTrue();
+
+		MCVersion previous = null;
+
+		for (MCVersion version : MCVersions.getAll()) {
+			assertThat(previous == null || previous.compareTo(version) < 0).isTrue();
+			previous = version;
+		}
+	}
+
+	@Test
+	public void invalidCacheShouldBeIgnored(@TempDir Path tempDirectory) throws IOException {
+		assertThat(MCVersionCache.read(tempDirectory)).isNull();
+		MCVersionCache.write(tempDirectory, Collections.emptyList());
+		assertThat(MCVersionCache.read(tempDirectory)).isNull();
+
+		Files.write(
+				tempDirectory.resolve("minecraft_versions.json"),
+				Collections.singletonList("invalid")
+		);
+		assertThat(MCVersionCache.read(tempDirectory)).isNull();
+	}
+}
@@ -35,4 +35,23 @@ public class MCVersionGroupsTest {
 		assertThat(MCVersionGroups.V1_7.containsAny(MCVersions.V1_7_2)).isTrue();
 		assertThat(MCVersionGroups.V1_7.containsAny(MCVersions.V1_8)).isFalse();
 	}
+
+	@Test
+	public void mcVersionGroupVersionsShouldBeSorted() {
+		assertThat(MCVersionGroups.V1_12.versions()).containsExactly(
+				MCVersions.V1_12, MCVersions.V1_12_1, MCVersions.V1_12_2
+		);
+	}
+
+	@Test
+	public void mcVersionGroupMembershipShouldBePrecomputed() {
+		assertThat(MCVersions.V1_12_2.versionGroup()).isSameAs(MCVersionGroups.V1_12);
+		assertThat(MCVersions.UNKNOWN.versionGroup().versions()).isEmpty();
+		assertThat(MCVersionGroups.V1_12.versions()).isSameAs(MCVersionGroups.V1_12.versions());
+
+		final MCVersionSet versions = MCVersionSet.copyOf(MCVersionGroups.V1_12.versions());
+		assertThat(versions.last()).isSameAs(MCVersions.V1_12_2);
+		assertThat(versions.lower(MCVersions.V1_12_2)).isSameAs(MCVersions.V1_12_1);
+		assertThat(versions.higher(MCVersions.V1_12_2)).isNull();
+	}
 }
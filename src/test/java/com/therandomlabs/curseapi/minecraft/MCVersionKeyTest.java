@@ -0,0 +1,78 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class MCVersionKeyTest {
+	@Test
+	public void versionStringsShouldHaveDistinctKeys() {
+		final List<String> versionStrings = Arrays.asList(
+				"1.12", "1.12.0", "1.12.2", "1.2.12", "1.15-Snapshot", "1.15.2-Snapshot",
+				"1.14.4-pre", "1.14.4-pre1", "1.14.4-pre2", "1.14.4-rc1", "1.16-rc1", "0.0",
+				"254.254.254-rc254", "Fabric", "Forge", "LiteLoader", "Rift"
+		);
+		final Set<Long> keys = new HashSet<>();
+
+		for (String versionString : versionStrings) {
+			final long key = MCVersionKey.of(versionString);
+			assertThat(key).isNotEqualTo(MCVersionKey.INVALID);
+			assertThat(MCVersionKey.of(new StringBuilder(versionString))).isEqualTo(key);
+			keys.add(key);
+		}
+
+		assertThat(keys).hasSameSizeAs(versionStrings);
+	}
+
+	@Test
+	public void invalidVersionStringsShouldBeRejected() {
+		for (String versionString : Arrays.asList(
+				"", "1", "1.", ".12", "1..2", "1.012", "01.12", "1.12.", "1.255", "1.12-snapshot",
+				"1.15-Snapshot1", "1.14-pre01", "1.14-pre 1", "1.14-rc-1", "forge", "Forge1",
+				"Unknown"
+		)) {
+			assertThat(MCVersionKey.of(versionString)).
+					as(versionString).
+					isEqualTo(MCVersionKey.INVALID);
+		}
+	}
+
+	@Test
+	public void versionsShouldBeRetrievedFromCharSequences() {
+		assertThat(MCVersions.get(CharBuffer.wrap("1.12.2"))).isSameAs(MCVersions.V1_12_2);
+		assertThat(MCVersions.get(new StringBuilder("1.15-Snapshot"))).
+				isSameAs(MCVersions.V1_15_SNAPSHOT);
+		assertThat(MCVersions.get("Forge")).isSameAs(MCVersions.FORGE);
+		assertThat(MCVersions.get("1.12.02")).isSameAs(MCVersions.UNKNOWN);
+		assertThat(MCVersions.get("Unknown modloader")).isSameAs(MCVersions.UNKNOWN);
+	}
+}
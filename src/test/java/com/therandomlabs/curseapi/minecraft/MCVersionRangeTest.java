@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class MCVersionRangeTest {
+	@Test
+	public void rangesShouldContainCorrectVersions() {
+		final MCVersionRange range = MCVersionRange.parse("[1.12,1.13)");
+		assertThat(range.contains(MCVersions.V1_12)).isTrue();
+		assertThat(range.contains(MCVersions.V1_12_2)).isTrue();
+		assertThat(range.contains(MCVersions.V1_13)).isFalse();
+		assertThat(range.contains(MCVersions.V1_11_2)).isFalse();
+		assertThat(range.contains("1.12.1")).isTrue();
+		assertThat(range.contains("invalid")).isFalse();
+		assertThat(range.containsAnyStrings(Arrays.asList("1.7.10", "1.12.2"))).isTrue();
+		//Snapshots are sorted before the versions that they precede.
+		assertThat(range.versions()).startsWith(MCVersions.V1_12).endsWith(
+				MCVersions.V1_12_2, MCVersions.V1_13_SNAPSHOT
+		);
+		assertThat(range.excludingSnapshots().versions()).endsWith(MCVersions.V1_12_2);
+
+		final MCVersionRange exclusive = MCVersionRange.parse("(1.12,1.12.2]");
+		assertThat(exclusive.versions()).containsExactly(MCVersions.V1_12_1, MCVersions.V1_12_2);
+
+		assertThat(MCVersionRange.parse("1.12.2").versions()).containsExactly(MCVersions.V1_12_2);
+		assertThat(MCVersionRange.parse(" [1.12.2] ").versions()).
+				containsExactly(MCVersions.V1_12_2);
+	}
+
+	@Test
+	public void unboundedRangesShouldContainCorrectVersions() {
+		final MCVersionRange newer = MCVersionRange.parse("[1.14,)");
+		assertThat(newer.contains(MCVersions.V1_15_1)).isTrue();
+		assertThat(newer.contains(MCVersions.V1_15_SNAPSHOT)).isTrue();
+		assertThat(newer.contains(MCVersions.V1_13_2)).isFalse();
+		assertThat(newer.contains(MCVersions.FORGE)).isFalse();
+		assertThat(newer.versions()).contains(MCVersions.V1_15_1).
+				doesNotContain(MCVersions.FABRIC, MCVersions.FORGE, MCVersions.RIFT);
+		assertThat(MCVersionRange.atLeast(MCVersions.V1_14).versions()).
+				isEqualTo(newer.versions());
+		//Files for Forge list Forge as a game version, which should not match every open range.
+		assertThat(newer.containsAnyStrings(Arrays.asList("1.7.10", "Forge"))).isFalse();
+		assertThat(newer.containsAnyStrings(Arrays.asList("1.14.4", "Forge"))).isTrue();
+
+		final MCVersionRange release = newer.excludingSnapshots();
+		assertThat(release.contains(MCVersions.V1_15_1)).isTrue();
+		assertThat(release.contains(MCVersions.V1_15_SNAPSHOT)).isFalse();
+		assertThat(release.versions()).noneMatch(MCVersion::isSnapshot);
+		assertThat(release).isEqualTo(
+				MCVersionRange.atLeast(MCVersions.V1_14).excludingSnapshots()
+		);
+
+		final MCVersionRange older = MCVersionRange.parse("(,1.1]");
+		assertThat(older.versions()).startsWith(MCVersions.getAll().first()).
+				endsWith(MCVersions.V1_1);
+		assertThat(older).isEqualTo(MCVersionRange.atMost(MCVersions.V1_1));
+	}
+
+	@Test
+	public void unionsShouldContainVersionsInAnyRange() {
+		final MCVersionRange range =
+				MCVersionRange.parse("[1.7.10], [1.12,1.12.2], [1.12.1,1.12.2]");
+		assertThat(range.contains(MCVersions.V1_7_10)).isTrue();
+		assertThat(range.contains(MCVersions.V1_8)).isFalse();
+		assertThat(range.versions()).containsExactly(
+				MCVersions.V1_7_10, MCVersions.V1_12, MCVersions.V1_12_1, MCVersions.V1_12_2
+		);
+		assertThat(range.toString()).isEqualTo("[1.7.10],[1.12,1.12.2],[1.12.1,1.12.2]");
+	}
+
+	@Test
+	public void rangesShouldFollowRegistrations() {
+		final MCVersionRange range = MCVersionRange.parse("[1.15.1,)");
+		assertThat(range.versions()).doesNotContain(MCVersions.V1_12_2);
+
+		final MCVersion version = MCVersions.register("1.98");
+		assertThat(range.contains(version)).isTrue();
+		assertThat(range.versions()).contains(version);
+	}
+
+	@Test
+	public void invalidRangesShouldBeRejected() {
+		for (String range : new String[] {
+				"", "[1.12", "[1.12,1.13", "(1.12.2)", "[1.13,1.12]", "[1.12,1.13)x",
+				"[1.12,1.12.1,1.12.2]", "[invalid,)", "invalid"
+		}) {
+			assertThatThrownBy(() -> MCVersionRange.parse(range)).
+					isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+}
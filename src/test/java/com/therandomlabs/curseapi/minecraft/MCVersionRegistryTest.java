@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.therandomlabs.curseapi.minecraft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+public class MCVersionRegistryTest {
+	private static final int WRITERS = 8;
+	private static final int READERS = 8;
+	private static final int VERSIONS_PER_WRITER = 250;
+
+	@Test
+	public void concurrentRegistrationShouldBeSafe()
+			throws ExecutionException, InterruptedException {
+		final int initialSize = MCVersions.getAll().size();
+		final ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicBoolean writing = new AtomicBoolean(true);
+		final List<Future<?>> writers = new ArrayList<>();
+		final List<Future<?>> readers = new ArrayList<>();
+
+		try {
+			for (int writer = 0; writer < WRITERS; writer++) {
+				final int writerIndex = writer;
+				writers.add(executor.submit(() -> {
+					start.await();
+
+					for (int i = 0; i < VERSIONS_PER_WRITER; i++) {
+						final MCVersion version = new MCVersion(
+								1_000_000 + writerIndex * VERSIONS_PER_WRITER + i,
+								"Registry Test " + writerIndex + "-" + i
+						);
+						MCVersionRegistry.register(version);
+						//Registrations should be visible to the registering thread immediately.
+						assertThat(MCVersions.get(version.versionString())).isSameAs(version);
+					}
+
+					return null;
+				}));
+			}
+
+			for (int reader = 0; reader < READERS; reader++) {
+				readers.add(executor.submit(() -> {
+					start.await();
+
+					while (writing.get()) {
+						assertThat(MCVersions.get("1.12.2")).isSameAs(MCVersions.V1_12_2);
+						assertSorted(MCVersions.getAll());
+						assertSorted(MCVersionGroups.V1_12.versions());
+					}
+
+					return null;
+				}));
+			}
+
+			start.countDown();
+
+			for (Future<?> future : writers) {
+				future.get();
+			}
+
+			writing.set(false);
+
+			for (Future<?> future : readers) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertThat(MCVersions.getAll()).hasSize(initialSize + WRITERS * VERSIONS_PER_WRITER);
+		assertSorted(MCVersions.getAll());
+	}
+
+	@Test
+	public void ordinalsShouldBeDense() {
+		final MCVersion duplicate = new MCVersion(0L, MCVersions.V1_12_2.versionString());
+		MCVersionRegistry.register(duplicate);
+		assertThat(duplicate.ordinal()).isEqualTo(-1);
+
+		final MCVersionSet versions = MCVersionSet.all();
+		assertThat(versions).extracting(MCVersion::ordinal).
+				doesNotHaveDuplicates().
+				allMatch(ordinal -> ordinal >= 0 && ordinal < versions.size());
+	}
+
+	@Test
+	public void versionsWithEqualSortIndexesShouldBeOrderedByRegistration() {
+		final MCVersion version1 = new MCVersion(5_000_000L, "Tie Test 1");
+		final MCVersion version2 = new MCVersion(5_000_000L, "Tie Test 2");
+		MCVersionRegistry.register(version1);
+		MCVersionRegistry.register(version2);
+
+		assertThat(version1.compareTo(version2)).isNegative();
+		assertThat(version2.compareTo(version1)).isPositive();
+		assertThat(MCVersions.getAll().subSet(version1, true, version2, true)).
+				containsExactly(version1, version2);
+	}
+
+	@Test
+	public void versionsShouldBeInsertedWithoutRenumbering() {
+		final long sortIndex1 = MCVersions.V1_15.getSortIndex();
+		final long sortIndex2 = MCVersions.V1_15_1.getSortIndex();
+
+		final MCVersion version1 = MCVersions.registerAfter(MCVersions.V1_15, "Insertion Test 1");
+		final MCVersion version2 = MCVersions.registerBefore(version1, "Insertion Test 2");
+		assertThat(MCVersions.V1_15.getSortIndex()).isEqualTo(sortIndex1);
+		assertThat(MCVersions.V1_15_1.getSortIndex()).isEqualTo(sortIndex2);
+		assertThat(MCVersions.getAll().subSet(MCVersions.V1_15, true, MCVersions.V1_15_1, true)).
+				containsExactly(MCVersions.V1_15, version2, version1, MCVersions.V1_15_1);
+		assertThat(MCVersions.registerAfter(MCVersions.V1_0, "Insertion Test 1")).
+				isSameAs(version1);
+
+		//Repeated insertions at the same position eventually exhaust the gap between two sort
+		//indexes, after which the registry respaces all sort indexes.
+		MCVersion previous = version2;
+
+		for (int i = 0; i < 40; i++) {
+			previous = MCVersions.registerAfter(previous, "Insertion Test Gap " + i);
+		}
+
+		assertThat(previous.olderThan(version1)).isTrue();
+		assertThat(MCVersions.V1_15.olderThan(version2)).isTrue();
+		assertSorted(MCVersions.getAll());
+
+		assertThat(MCVersions.register("Insertion Test 3")).isSameAs(MCVersions.getAll().last());
+		assertThatThrownBy(() -> MCVersions.registerBefore(MCVersions.UNKNOWN, "Invalid")).
+				isInstanceOf(IllegalArgumentException.class);
+		assertThat(MCVersions.get("Invalid")).isSameAs(MCVersions.UNKNOWN);
+	}
+
+	@Test
+	public void newVersionsShouldBeRegisteredBeforeModloaders() {
+		final MCVersion version = MCVersions.register("1.99");
+		assertThat(version.newerThan(MCVersions.V1_15_1)).isTrue();
+		assertThat(version.olderThan(MCVersions.FABRIC)).isTrue();
+		assertThat(version.olderThan(MCVersions.FORGE)).isTrue();
+		assertThat(MCVersions.getAll().last()).isNotSameAs(version);
+		assertThat(MCVersions.getAll().last().versionGroupOrdinal()).isNegative();
+		assertSorted(MCVersions.getAll());
+	}
+
+	private static void assertSorted(Iterable<MCVersion> versions) {
+		final Iterator<MCVersion> iterator = versions.iterator();
+
+		if (!iterator.hasNext()) {
+			return;
+		}
+
+		MCVersion previous = iterator.next();
+
+		while (iterator.hasNext()) {
+			final MCVersion version = iterator.next();
+			assertThat(previous.olderThan(version)).isTrue();
+			previous = version;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+public class MCVersionSetTest {
+	@Test
+	public void setsShouldBehaveLikeTreeSets() {
+		final MCVersionSet set = MCVersionSet.of(
+				MCVersions.V1_15_1, MCVersions.V1_7_10, MCVersions.V1_12_2, MCVersions.V1_12
+		);
+		final TreeSet<MCVersion> treeSet = new TreeSet<>(set);
+
+		assertThat(set).hasSize(4).containsExactlyElementsOf(treeSet).isEqualTo(treeSet);
+		assertThat(set.hashCode()).isEqualTo(treeSet.hashCode());
+		assertThat(set.first()).isSameAs(MCVersions.V1_7_10);
+		assertThat(set.last()).isSameAs(MCVersions.V1_15_1);
+		assertThat(set.contains(MCVersions.V1_12_1)).isFalse();
+		assertThat(set.contains("1.12.2")).isFalse();
+
+		for (MCVersion version : Arrays.asList(
+				MCVersions.V1_0, MCVersions.V1_12, MCVersions.V1_12_1, MCVersions.V1_15_1
+		)) {
+			assertThat(set.lower(version)).isEqualTo(treeSet.lower(version));
+			assertThat(set.floor(version)).isEqualTo(treeSet.floor(version));
+			assertThat(set.ceiling(version)).isEqualTo(treeSet.ceiling(version));
+			assertThat(set.higher(version)).isEqualTo(treeSet.higher(version));
+		}
+
+		assertThat(set.subSet(MCVersions.V1_12, MCVersions.V1_15_1)).
+				isEqualTo(treeSet.subSet(MCVersions.V1_12, MCVersions.V1_15_1));
+		assertThat(set.headSet(MCVersions.V1_12_2, true)).
+				isEqualTo(treeSet.headSet(MCVersions.V1_12_2, true));
+		assertThat(set.tailSet(MCVersions.V1_12_1)).
+				isEqualTo(treeSet.tailSet(MCVersions.V1_12_1));
+		assertThat(set.descendingSet()).containsExactlyElementsOf(treeSet.descendingSet());
+		assertThat(set.descendingIterator().next()).isSameAs(MCVersions.V1_15_1);
+	}
+
+	@Test
+	public void setOperationsShouldBeCorrect() {
+		final MCVersionSet set1 = MCVersionSet.of(MCVersions.V1_12, MCVersions.V1_12_2);
+		final MCVersionSet set2 = MCVersionSet.of(MCVersions.V1_12_2, MCVersions.V1_14_4);
+
+		assertThat(set1.union(set2)).containsExactly(
+				MCVersions.V1_12, MCVersions.V1_12_2, MCVersions.V1_14_4
+		);
+		assertThat(set1.intersection(set2)).containsExactly(MCVersions.V1_12_2);
+		assertThat(set1.difference(set2)).containsExactly(MCVersions.V1_12);
+		assertThat(set1.intersects(set2)).isTrue();
+		assertThat(set1.intersects(MCVersionSet.of(MCVersions.V1_14_4))).isFalse();
+		assertThat(set1.isSubsetOf(set2)).isFalse();
+		assertThat(set1.isSubsetOf(MCVersionSet.copyOf(MCVersionGroups.V1_12.versions()))).
+				isTrue();
+		assertThat(MCVersions.getAll().containsAll(set1.union(set2))).isTrue();
+		assertThat(MCVersionSet.of().isEmpty()).isTrue();
+		assertThat(MCVersionSet.copyOf(set1)).isSameAs(set1);
+	}
+
+	@Test
+	public void setsShouldBeImmutable() {
+		final MCVersionSet set = MCVersionSet.of(MCVersions.V1_12_2);
+		assertThatThrownBy(() -> set.add(MCVersions.V1_12)).
+				isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(set::clear).isInstanceOf(UnsupportedOperationException.class);
+		assertThatThrownBy(() -> MCVersionSet.of(MCVersions.UNKNOWN)).
+				isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -24,9 +24,11 @@
 package com.therandomlabs.curseapi.minecraft;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
@@ -42,6 +44,18 @@ public class MCVersionsTest {
 		assertThat(MCVersions.getAll()).isNotEmpty().isEqualTo(optionalVersions.get());
 	}
 
+	@Test
+	public void getAllShouldReturnImmutableView() {
+		assertThat(MCVersions.getAll()).isSameAs(MCVersions.getAll());
+		assertThatThrownBy(() -> MCVersions.getAll().add(MCVersions.UNKNOWN)).
+				isInstanceOf(UnsupportedOperationException.class);
+
+		final NavigableSet<MCVersion> versions = MCVersions.copyAll();
+		assertThat(versions).isEqualTo(MCVersions.getAll());
+		versions.remove(MCVersions.V1_12_2);
+		assertThat(MCVersions.getAll()).contains(MCVersions.V1_12_2);
+	}
+
 	@Test
 	public void mcVersionComparisonsShouldBeCorrect() {
 		MCVersions.getAll();
@@ -57,6 +71,22 @@ public class MCVersionsTest {
 		assertThat(MCVersions.V1_0.toString()).isEqualTo(MCVersions.V1_0.versionString());
 	}
 
+	@Test
+	public void mcVersionsShouldBeRetrievableByVersionString() {
+		assertThat(MCVersions.get("1.12.2")).isSameAs(MCVersions.V1_12_2);
+		assertThat(MCVersions.get("1.8-Snapshot")).isSameAs(MCVersions.V1_8_SNAPSHOT);
+		assertThat(MCVersions.get("Forge")).isSameAs(MCVersions.FORGE);
+		assertThat(MCVersions.get("invalid")).isSameAs(MCVersions.UNKNOWN);
+	}
+
+	@Test
+	public void asyncInitializationShouldComplete()
+			throws ExecutionException, InterruptedException {
+		CurseAPIMinecraft.initializeAsync().get();
+		assertThat(MCVersions.getAll()).contains(MCVersions.V1_12_2, MCVersions.V1_12_SNAPSHOT);
+		assertThat(MCVersions.V1_12_SNAPSHOT.olderThan(MCVersions.V1_12)).isTrue();
+	}
+
 	@BeforeAll
 	public static void setup() {
 		CurseAPIMinecraft.initialize();
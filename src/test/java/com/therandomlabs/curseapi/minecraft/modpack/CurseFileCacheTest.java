@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CurseFileCacheTest {
+	@BeforeEach
+	@AfterEach
+	public void resetCache() {
+		CurseFileCache.maximumSize(CurseFileCache.DEFAULT_MAXIMUM_SIZE);
+		CurseFileCache.timeToLive(null);
+	}
+
+	@Test
+	public void missingFilesShouldNotBeRequestedAgain() {
+		final BasicCurseFile file = new BasicCurseFile.Immutable(285612, 1);
+		CurseFileCache.putMissing(file);
+
+		final CurseModpack modpack =
+				CurseModpack.createEmpty().files(Collections.singletonList(file));
+		assertThatThrownBy(modpack::files).
+				isInstanceOf(CurseException.class).
+				hasMessageContaining("File not found: 285612/1");
+		assertThat(CurseFileCache.stats().hitCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void leastRecentlyUsedFilesShouldBeEvicted() {
+		CurseFileCache.maximumSize(1L);
+		CurseFileCache.putMissing(new BasicCurseFile.Immutable(285612, 1));
+		CurseFileCache.putMissing(new BasicCurseFile.Immutable(285612, 2));
+
+		assertThat(CurseFileCache.size()).isEqualTo(1L);
+		assertThat(CurseFileCache.stats().evictionCount()).isEqualTo(1L);
+		assertThat(CurseFileCache.getIfPresent(new BasicCurseFile.Immutable(285612, 1))).isNull();
+		assertThat(CurseFileCache.isKnownMissing(new BasicCurseFile.Immutable(285612, 1))).
+				isFalse();
+		assertThat(CurseFileCache.isKnownMissing(new BasicCurseFile.Immutable(285612, 2))).
+				isTrue();
+		assertThat(CurseFileCache.stats().missCount()).isEqualTo(1L);
+	}
+
+	@Test
+	public void expiredFilesShouldBeEvicted() {
+		CurseFileCache.timeToLive(Duration.ZERO);
+		CurseFileCache.putMissing(new BasicCurseFile.Immutable(285612, 1));
+		assertThat(CurseFileCache.isKnownMissing(new BasicCurseFile.Immutable(285612, 1))).
+				isFalse();
+	}
+}
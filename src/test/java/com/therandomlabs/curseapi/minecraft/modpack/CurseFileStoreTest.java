@@ -0,0 +1,192 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.therandomlabs.curseapi.file.CurseFile;
+import com.therandomlabs.curseapi.game.CurseGameVersion;
+import com.therandomlabs.curseapi.util.MoshiUtils;
+import okhttp3.HttpUrl;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CurseFileStoreTest {
+	//A second CurseFile implementation, since files may be resolved by different providers.
+	private static final class TestFile extends CurseFile {
+		private int projectID;
+		private int id;
+		private String displayName = "";
+
+		@Override
+		public int projectID() {
+			return projectID;
+		}
+
+		@Override
+		public int id() {
+			return id;
+		}
+
+		@Override
+		public String displayName() {
+			return displayName;
+		}
+
+		@Override
+		public String nameOnDisk() {
+			return displayName;
+		}
+
+		@Override
+		public long fileSize() {
+			return 0L;
+		}
+
+		@Nullable
+		@Override
+		public HttpUrl downloadURL() {
+			return null;
+		}
+
+		@Override
+		public Set<String> gameVersionStrings() {
+			return Collections.emptySet();
+		}
+
+		@Override
+		public <V extends CurseGameVersion<?>> SortedSet<V> gameVersions() {
+			return new TreeSet<>();
+		}
+
+		@Nullable
+		@Override
+		public ZonedDateTime uploadTime() {
+			return null;
+		}
+	}
+
+	@Test
+	public void filesShouldSurviveReopening(@TempDir Path tempDirectory) throws Exception {
+		final Path path = tempDirectory.resolve("files.log");
+		final CurseFile file = file(285612, 2803612);
+
+		try (CurseFileStore store = CurseFileStore.open(path)) {
+			assertThat(store).isNotNull();
+			assertThat(store.get(285612, 2803612)).isNull();
+			store.put(file);
+			store.put(file);
+			assertThat(store.size()).isEqualTo(1);
+		}
+
+		//Simulate a record that was only partially written before a crash.
+		Files.write(path, new byte[] {0, 0, 0, 1, 0}, StandardOpenOption.APPEND);
+
+		try (CurseFileStore store = CurseFileStore.open(path)) {
+			assertThat(store).isNotNull();
+			assertThat(store.size()).isEqualTo(1);
+
+			final CurseFile storedFile = store.get(285612, 2803612);
+			assertThat(storedFile).isNotNull();
+			assertThat(storedFile.id()).isEqualTo(2803612);
+			assertThat(storedFile.projectID()).isEqualTo(285612);
+			assertThat(storedFile.displayName()).isEqualTo(file.displayName());
+
+			store.put(file(32274, 2839369));
+			assertThat(store.get(32274, 2839369)).isNotNull();
+		}
+	}
+
+	@Test
+	public void filesOfDifferentClassesShouldBeStored(@TempDir Path tempDirectory)
+			throws Exception {
+		final Path path = tempDirectory.resolve("files.log");
+		final TestFile testFile = new TestFile();
+		testFile.projectID = 32274;
+		testFile.id = 2839369;
+		testFile.displayName = "Test File";
+
+		try (CurseFileStore store = CurseFileStore.open(path)) {
+			assertThat(store).isNotNull();
+			store.put(file(285612, 2803612));
+			store.put(testFile);
+			assertThat(store.size()).isEqualTo(2);
+		}
+
+		try (CurseFileStore store = CurseFileStore.open(path)) {
+			assertThat(store).isNotNull();
+			assertThat(store.get(285612, 2803612)).isNotNull().isNotInstanceOf(TestFile.class);
+
+			final CurseFile storedFile = store.get(32274, 2839369);
+			assertThat(storedFile).isInstanceOf(TestFile.class);
+			assertThat(storedFile.displayName()).isEqualTo("Test File");
+		}
+	}
+
+	@Test
+	public void storeShouldOnlyBeOpenedOnce(@TempDir Path tempDirectory) throws IOException {
+		final Path path = tempDirectory.resolve("files.log");
+
+		try (CurseFileStore store = CurseFileStore.open(path)) {
+			assertThat(store).isNotNull();
+			assertThat(CurseFileStore.open(path)).isNull();
+		}
+	}
+
+	@Test
+	public void invalidStoreShouldBeCleared(@TempDir Path tempDirectory) throws IOException {
+		final Path path = tempDirectory.resolve("files.log");
+		Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+		try (CurseFileStore store = CurseFileStore.open(path)) {
+			assertThat(store).isNotNull();
+			assertThat(store.size()).isZero();
+		}
+
+		assertThat(path).hasBinaryContent(new byte[0]);
+	}
+
+	private static CurseFile file(int projectID, int fileID) throws Exception {
+		//Files are stored using the CurseFile implementation used by CurseAPI.
+		final Class<?> fileClass =
+				Class.forName("com.therandomlabs.curseapi.forgesvc.ForgeSvcFile");
+		final CurseFile file = (CurseFile) MoshiUtils.get().adapter(fileClass).fromJson(
+				"{\"id\":" + fileID + ",\"projectId\":" + projectID +
+						",\"displayName\":\"File " + fileID + "\"}"
+		);
+		assertThat(file).isNotNull();
+		return file;
+	}
+}
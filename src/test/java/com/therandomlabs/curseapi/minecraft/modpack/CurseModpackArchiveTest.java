@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.therandomlabs.curseapi.CurseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CurseModpackArchiveTest {
+	@Test
+	public void overridesShouldBeInstalled(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final Path zip = tempDirectory.resolve("modpack.zip");
+		writeZip(zip, "overrides/config/test.cfg", "overrides/scripts/test.zs");
+
+		final Path directory = tempDirectory.resolve("instance");
+
+		try (CurseModpackArchive archive = CurseModpackArchive.open(zip)) {
+			assertThat(archive.modpack().name()).isEqualTo("Archived Modpack");
+			assertThat(archive.overrides()).isEqualTo(CurseModpackArchive.DEFAULT_OVERRIDES);
+
+			final List<Path> paths = archive.install(directory);
+			assertThat(paths).containsExactlyInAnyOrder(
+					directory.resolve("config/test.cfg").toAbsolutePath(),
+					directory.resolve("scripts/test.zs").toAbsolutePath()
+			);
+		}
+
+		assertThat(directory.resolve("config/test.cfg")).hasContent("overrides/config/test.cfg");
+	}
+
+	@Test
+	public void overridesOutsideDirectoryShouldBeRejected(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final Path zip = tempDirectory.resolve("modpack.zip");
+		writeZip(zip, "overrides/../../escaped.cfg");
+
+		//Depending on the JDK, the ZIP file system may refuse to open the archive at all.
+		assertThatThrownBy(() -> {
+			try (CurseModpackArchive archive = CurseModpackArchive.open(zip)) {
+				archive.extractOverrides(tempDirectory.resolve("instance"));
+			}
+		}).isInstanceOf(CurseException.class);
+
+		assertThat(tempDirectory.resolveSibling("escaped.cfg")).doesNotExist();
+	}
+
+	@Test
+	public void zipWithoutManifestShouldThrowCurseException(@TempDir Path tempDirectory)
+			throws IOException {
+		final Path zip = tempDirectory.resolve("modpack.zip");
+
+		try (ZipOutputStream stream = new ZipOutputStream(Files.newOutputStream(zip))) {
+			stream.putNextEntry(new ZipEntry("overrides/config/test.cfg"));
+		}
+
+		assertThatThrownBy(() -> CurseModpackArchive.open(zip)).
+				isInstanceOf(CurseException.class).
+				hasMessageContaining("No modpack manifest");
+	}
+
+	private static void writeZip(Path zip, String... overrides)
+			throws CurseException, IOException {
+		final byte[] json = CurseModpack.createEmpty().
+				name("Archived Modpack").
+				toJSON().
+				getBytes(StandardCharsets.UTF_8);
+
+		try (ZipOutputStream stream = new ZipOutputStream(Files.newOutputStream(zip))) {
+			stream.putNextEntry(new ZipEntry(CurseModpack.MANIFEST_NAME));
+			stream.write(json);
+
+			for (String override : overrides) {
+				stream.putNextEntry(new ZipEntry(override));
+				stream.write(override.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+}
@@ -26,11 +26,19 @@ package com.therandomlabs.curseapi.minecraft.modpack;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import com.therandomlabs.curseapi.CurseAPI;
 import com.therandomlabs.curseapi.CurseException;
@@ -51,6 +59,176 @@ public class CurseModpackTest {
 				hasMessageContaining("Invalid modpack manifest");
 	}
 
+	@Test
+	public void zippedManifestShouldBeParsed(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final CurseModpack modpack = CurseModpack.createEmpty().
+				name("Zipped Modpack").
+				files(Collections.singletonList(new BasicCurseFile.Immutable(285612, 2803612)));
+		final byte[] json = modpack.toJSON().getBytes(StandardCharsets.UTF_8);
+		final Path zip = tempDirectory.resolve("modpack.zip");
+
+		try (ZipOutputStream stream = new ZipOutputStream(Files.newOutputStream(zip))) {
+			stream.putNextEntry(new ZipEntry("overrides/config/test.cfg"));
+			stream.putNextEntry(new ZipEntry(CurseModpack.MANIFEST_NAME));
+			stream.write(json);
+		}
+
+		final CurseModpack zippedModpack = CurseModpack.fromZip(zip);
+		assertThat(zippedModpack.name()).isEqualTo("Zipped Modpack");
+		assertThat(zippedModpack.basicFiles()).containsExactly(
+				new BasicCurseFile.Immutable(285612, 2803612)
+		);
+
+		final CurseModpack streamedModpack =
+				CurseModpack.fromJSON(new ByteArrayInputStream(json));
+		assertThat(streamedModpack.toJSON()).isEqualTo(zippedModpack.toJSON());
+	}
+
+	@Test
+	public void zipWithoutManifestShouldThrowCurseException(@TempDir Path tempDirectory)
+			throws IOException {
+		final Path zip = tempDirectory.resolve("modpack.zip");
+
+		try (ZipOutputStream stream = new ZipOutputStream(Files.newOutputStream(zip))) {
+			stream.putNextEntry(new ZipEntry("overrides/config/test.cfg"));
+		}
+
+		assertThatThrownBy(() -> CurseModpack.fromZip(zip)).
+				isInstanceOf(CurseException.class).
+				hasMessageContaining("No modpack manifest");
+	}
+
+	@Test
+	public void manifestShouldBeWrittenAsRead() throws CurseException {
+		final String json = "{\"author\":\"Author\",\"files\":[" +
+				"{\"fileID\":2803612,\"projectID\":285612,\"required\":false}]," +
+				"\"manifestType\":\"minecraftModpack\",\"manifestVersion\":1," +
+				"\"minecraft\":{\"modLoaders\":[{\"id\":\"forge-28.1.104\"," +
+				"\"primary\":true}],\"version\":\"1.14.4\"},\"name\":\"Name\"," +
+				"\"overrides\":\"overrides\",\"version\":\"1.0.0\"}";
+		final String jsonWithUnknownFields = json.replace(
+				"\"author\"", "\"unknown\":{\"field\":[1,2]},\"author\""
+		);
+
+		final CurseModpack modpack = CurseModpack.fromJSON(jsonWithUnknownFields);
+		assertThat(modpack.mcVersion()).isEqualTo(MCVersions.V1_14_4);
+		assertThat(modpack.forgeVersion()).isEqualTo("1.14.4-28.1.104");
+		assertThat(modpack.toJSON()).isEqualTo(json);
+	}
+
+	@Test
+	public void basicFileChangesShouldBeReflected() throws CurseException {
+		final CurseModpack modpack = CurseModpack.fromJSON(CurseModpack.createEmpty().
+				files(Collections.singletonList(new BasicCurseFile.Immutable(285612, 2803612))).
+				toJSON().
+				replace("\"required\":true", "\"required\":false"));
+		modpack.basicFiles().add(new BasicCurseFile.Immutable(32274, 2839369));
+
+		final CurseModpack readModpack = CurseModpack.fromJSON(modpack.toJSON());
+		assertThat(readModpack.basicFiles()).containsExactlyInAnyOrder(
+				new BasicCurseFile.Immutable(285612, 2803612),
+				new BasicCurseFile.Immutable(32274, 2839369)
+		);
+		assertThat(readModpack.toJSON()).contains(
+				"{\"fileID\":2803612,\"projectID\":285612,\"required\":false}",
+				"{\"fileID\":2839369,\"projectID\":32274,\"required\":true}"
+		);
+
+		readModpack.basicFiles().clear();
+		assertThat(readModpack.toJSON()).contains("\"files\":[]");
+	}
+
+	@Test
+	public void filesShouldBeWrittenInCurseFilesOrder() throws CurseException {
+		final String json = CurseModpack.createEmpty().toJSON().replace(
+				"\"files\":[]",
+				"\"files\":[{\"fileID\":2803612,\"projectID\":285612,\"required\":true}," +
+						"{\"fileID\":2839369,\"projectID\":32274,\"required\":false}," +
+						"{\"fileID\":2803612,\"projectID\":285612,\"required\":false}]"
+		);
+		final String expectedFiles =
+				"\"files\":[{\"fileID\":2839369,\"projectID\":32274,\"required\":false}," +
+						"{\"fileID\":2803612,\"projectID\":285612,\"required\":true}]";
+
+		assertThat(CurseModpack.fromJSON(json).toJSON()).contains(expectedFiles);
+
+		final CurseModpack modpack = CurseModpack.fromJSON(json);
+		modpack.basicFiles();
+		assertThat(modpack.toJSON()).contains(expectedFiles);
+	}
+
+	@Test
+	public void settingFilesShouldRefillBasicFiles() throws CurseException {
+		final CurseModpack modpack = CurseModpack.createEmpty().
+				files(Collections.singletonList(new BasicCurseFile.Immutable(285612, 2803612)));
+		final Set<BasicCurseFile> basicFiles = modpack.basicFiles();
+
+		modpack.files(Collections.singletonList(new BasicCurseFile.Immutable(32274, 2839369)));
+		assertThat(basicFiles).containsExactly(new BasicCurseFile.Immutable(32274, 2839369));
+		assertThat(modpack.toJSON()).contains("\"projectID\":32274").
+				doesNotContain("\"projectID\":285612");
+	}
+
+	@Test
+	public void serializedManifestShouldBeReusedUntilChanged(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final CurseModpack modpack = CurseModpack.createEmpty().
+				files(Collections.singletonList(new BasicCurseFile.Immutable(285612, 2803612)));
+		final String json = modpack.toJSON();
+		assertThat(modpack.toJSON()).isSameAs(json);
+
+		modpack.name("Name");
+		final String renamedJSON = modpack.toJSON();
+		assertThat(renamedJSON).isNotEqualTo(json).contains("\"name\":\"Name\"");
+		assertThat(modpack.toJSON()).isSameAs(renamedJSON);
+
+		modpack.basicFiles();
+		assertThat(modpack.toJSON()).isSameAs(renamedJSON);
+
+		modpack.basicFiles().add(new BasicCurseFile.Immutable(32274, 2839369));
+		final String modifiedJSON = modpack.toJSON();
+		assertThat(modifiedJSON).contains("\"projectID\":32274");
+
+		final Path manifest = tempDirectory.resolve(CurseModpack.MANIFEST_NAME);
+		modpack.toJSON(manifest);
+		assertThat(new String(Files.readAllBytes(manifest), StandardCharsets.UTF_8)).
+				isEqualTo(modifiedJSON);
+	}
+
+	@Test
+	public void filesShouldBeResolvedWithOptions() throws CurseException {
+		final CurseModpack modpack = CurseModpack.createEmpty().files(Arrays.asList(
+				new BasicCurseFile.Immutable(285612, 2803612),
+				new BasicCurseFile.Immutable(316059, 2839369)
+		));
+		final AtomicInteger resolvedFiles = new AtomicInteger();
+		final ResolveOptions options = new ResolveOptions().
+				parallelism(1).
+				requestsPerSecond(10.0).
+				timeout(Duration.ofMinutes(1L)).
+				progressListener((file, resolved, total) -> {
+					assertThat(total).isEqualTo(2);
+					resolvedFiles.incrementAndGet();
+				});
+
+		assertThat(modpack.files(options)).
+				hasSize(2).
+				allMatch(file -> modpack.basicFiles().contains(file));
+		assertThat(resolvedFiles).hasValue(2);
+		assertThat(CurseModpack.createEmpty().files(options)).isEmpty();
+	}
+
+	@Test
+	public void invalidResolveOptionsShouldBeRejected() {
+		assertThatThrownBy(() -> new ResolveOptions().parallelism(0)).
+				isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ResolveOptions().requestsPerSecond(-1.0)).
+				isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ResolveOptions().timeout(Duration.ofSeconds(-1L))).
+				isInstanceOf(IllegalArgumentException.class);
+	}
+
 	@Test
 	public void atm4ShouldBeValid(@TempDir Path tempDirectory) throws CurseException, IOException {
 		final Optional<Path> optionalPath =
@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import com.google.common.io.ByteStreams;
+import com.therandomlabs.curseapi.CurseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CurseModpackWriterTest {
+	@Test
+	public void writtenModpackShouldBeReadable(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final Path overrides = tempDirectory.resolve("overrides");
+		Files.createDirectories(overrides.resolve("config"));
+		Files.write(
+				overrides.resolve("config/test.cfg"), "test=true".getBytes(StandardCharsets.UTF_8)
+		);
+		Files.write(overrides.resolve("empty.txt"), new byte[0]);
+
+		//This file spans several blocks and is only partly compressible.
+		final byte[] large = new byte[ParallelZipWriter.BLOCK_SIZE * 3 + 12345];
+		final Random random = new Random(0L);
+
+		for (int i = 0; i < large.length; i++) {
+			large[i] = (byte) (i % 3 == 0 ? random.nextInt() : i / 1000);
+		}
+
+		Files.write(overrides.resolve("large.bin"), large);
+
+		final CurseModpack modpack = CurseModpack.createEmpty().name("Written Modpack");
+		final Path zip = tempDirectory.resolve("modpack.zip");
+		new CurseModpackWriter(modpack).
+				overrides(overrides).
+				modList("<ul></ul>").
+				compressionLevel(9).
+				parallelism(3).
+				write(zip);
+
+		final Map<String, byte[]> expected = new HashMap<>();
+		expected.put(CurseModpack.MANIFEST_NAME, modpack.toJSON().getBytes(StandardCharsets.UTF_8));
+		expected.put(
+				CurseModpackWriter.MOD_LIST_NAME, "<ul></ul>".getBytes(StandardCharsets.UTF_8)
+		);
+		expected.put("overrides/config/test.cfg", "test=true".getBytes(StandardCharsets.UTF_8));
+		expected.put("overrides/empty.txt", new byte[0]);
+		expected.put("overrides/large.bin", large);
+
+		//ZipFile reads the central directory, while ZipInputStream reads the local headers and
+		//data descriptors.
+		try (ZipFile zipFile = new ZipFile(zip.toFile())) {
+			assertThat(zipFile.size()).isEqualTo(expected.size());
+
+			for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+				final ZipEntry zipEntry = zipFile.getEntry(entry.getKey());
+				assertThat(zipEntry).isNotNull();
+
+				try (InputStream stream = zipFile.getInputStream(zipEntry)) {
+					assertThat(ByteStreams.toByteArray(stream)).isEqualTo(entry.getValue());
+				}
+			}
+		}
+
+		int entries = 0;
+
+		try (ZipInputStream stream = new ZipInputStream(Files.newInputStream(zip))) {
+			for (ZipEntry entry = stream.getNextEntry(); entry != null;
+			     entry = stream.getNextEntry()) {
+				assertThat(ByteStreams.toByteArray(stream)).
+						isEqualTo(expected.get(entry.getName()));
+				entries++;
+			}
+		}
+
+		assertThat(entries).isEqualTo(expected.size());
+		assertThat(Files.size(zip)).isLessThan(large.length);
+
+		try (CurseModpackArchive archive = CurseModpackArchive.open(zip)) {
+			assertThat(archive.modpack().name()).isEqualTo("Written Modpack");
+		}
+	}
+
+	@Test
+	public void invalidCompressionLevelsShouldBeRejected() {
+		final CurseModpackWriter writer = new CurseModpackWriter(CurseModpack.createEmpty());
+		assertThatThrownBy(() -> writer.compressionLevel(10)).
+				isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> writer.parallelism(0)).
+				isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import org.junit.jupiter.api.Test;
+
+public class FileResolverTest {
+	@Test
+	public void concurrentResolutionsShouldShareRateLimit() {
+		final ResolveOptions options = new ResolveOptions().requestsPerSecond(2.0);
+		assertThat(options.rateLimiter()).isNotNull().isSameAs(options.rateLimiter());
+
+		//Each resolution requests its missing files in a batch and then at least one of them
+		//individually, so the two resolutions acquire at least four permits from the shared
+		//rate limiter, the last of which is only available after 1.5 seconds. If each
+		//resolution had its own rate limiter, both would finish after about 0.5 seconds.
+		final long start = System.nanoTime();
+		final CompletableFuture<?> resolution1 = resolveAsync(5, options);
+		final CompletableFuture<?> resolution2 = resolveAsync(7, options);
+		CompletableFuture.allOf(resolution1, resolution2).join();
+		final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(elapsed).isGreaterThanOrEqualTo(1400L);
+		assertThat(options.requestsPerSecond(0.0).rateLimiter()).isNull();
+	}
+
+	private static CompletableFuture<?> resolveAsync(int fileID, ResolveOptions options) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				FileResolver.resolve(Arrays.asList(
+						new BasicCurseFile.Immutable(285612, fileID),
+						new BasicCurseFile.Immutable(285612, fileID + 1)
+				), options);
+			} catch (CurseException ignored) {
+				//The file does not exist.
+			}
+		});
+	}
+}
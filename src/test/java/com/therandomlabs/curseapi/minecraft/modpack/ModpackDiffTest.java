@@ -0,0 +1,77 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import org.junit.jupiter.api.Test;
+
+public class ModpackDiffTest {
+	@Test
+	public void filesShouldBeComparedByProject() {
+		final CurseModpack oldModpack = CurseModpack.createEmpty().files(Arrays.asList(
+				new BasicCurseFile.Immutable(285612, 2803612),
+				new BasicCurseFile.Immutable(32274, 2839369),
+				new BasicCurseFile.Immutable(238222, 2916002)
+		));
+		final CurseModpack newModpack = CurseModpack.createEmpty().files(Arrays.asList(
+				new BasicCurseFile.Immutable(285612, 2803612),
+				new BasicCurseFile.Immutable(32274, 2878888),
+				new BasicCurseFile.Immutable(220318, 2889431)
+		));
+
+		final ModpackDiff diff = ModpackDiff.of(oldModpack, newModpack);
+		assertThat(diff.isEmpty()).isFalse();
+		assertThat(diff.addedFiles()).containsExactly(
+				new BasicCurseFile.Immutable(220318, 2889431)
+		);
+		assertThat(diff.removedFiles()).containsExactly(
+				new BasicCurseFile.Immutable(238222, 2916002)
+		);
+		assertThat(diff.changedFiles()).hasSize(1);
+		assertThat(diff.changedFiles().get(0).oldFile()).isEqualTo(
+				new BasicCurseFile.Immutable(32274, 2839369)
+		);
+		assertThat(diff.changedFiles().get(0).newFile()).isEqualTo(
+				new BasicCurseFile.Immutable(32274, 2878888)
+		);
+	}
+
+	@Test
+	public void identicalModpacksShouldHaveEmptyDiff() {
+		final CurseModpack modpack = CurseModpack.createEmpty().files(Arrays.asList(
+				new BasicCurseFile.Immutable(285612, 2803612),
+				new BasicCurseFile.Immutable(32274, 2839369)
+		));
+
+		final ModpackDiff diff = ModpackDiff.of(modpack, modpack);
+		assertThat(diff.isEmpty()).isTrue();
+		assertThat(diff.addedFiles()).isEmpty();
+		assertThat(diff.removedFiles()).isEmpty();
+		assertThat(diff.changedFiles()).isEmpty();
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.minecraft.MCVersions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ModpackIndexTest {
+	@Test
+	public void modpacksShouldBeIndexed() {
+		final ModpackIndex index = createIndex();
+		assertThat(index.size()).isEqualTo(3);
+		assertThat(index.modpacksWithFile(2803612)).containsExactly("a", "b");
+		assertThat(index.modpacksWithFile(2803613)).containsExactly("c");
+		assertThat(index.modpacksWithFile(1)).isEmpty();
+		assertThat(index.modpacksWithProject(285612)).containsExactly("a", "b", "c");
+		assertThat(index.projectUsage(285612)).isEqualTo(3);
+		assertThat(index.projectUsage(285612, MCVersions.V1_12_2)).isEqualTo(2);
+		assertThat(index.projectUsage(32274, MCVersions.V1_14_4)).isEqualTo(1);
+		assertThat(index.projectUsage(32274, MCVersions.V1_15_1)).isZero();
+		assertThat(index.mostUsedProjects(2)).containsExactly(285612, 32274);
+		//Projects that are used equally often are ordered by ID.
+		assertThat(index.mostUsedProjects(MCVersions.V1_14_4, 10)).containsExactly(32274, 285612);
+	}
+
+	@Test
+	public void removedModpacksShouldNotBeReturned() {
+		final ModpackIndex index = createIndex();
+		assertThat(index.remove("b")).isTrue();
+		assertThat(index.remove("b")).isFalse();
+		assertThat(index.contains("b")).isFalse();
+		assertThat(index.modpacksWithFile(2803612)).containsExactly("a");
+		assertThat(index.projectUsage(32274)).isEqualTo(1);
+
+		//Replacing a modpack removes its old files.
+		index.add("a", CurseModpack.createEmpty().files(Arrays.asList(
+				new BasicCurseFile.Immutable(238222, 2803620)
+		)));
+		assertThat(index.modpacksWithFile(2803612)).isEmpty();
+		assertThat(index.modpacksWithProject(238222)).containsExactly("a");
+		assertThat(index.mostUsedProjects(10)).containsExactly(32274, 238222, 285612);
+	}
+
+	@Test
+	public void snapshotsShouldBeLoaded(@TempDir Path tempDirectory) throws CurseException {
+		final ModpackIndex index = createIndex();
+		index.remove("a");
+
+		final Path snapshot = tempDirectory.resolve("index.bin");
+		index.save(snapshot);
+
+		final ModpackIndex loadedIndex = ModpackIndex.load(snapshot);
+		assertThat(loadedIndex.size()).isEqualTo(2);
+		assertThat(loadedIndex.modpacksWithFile(2803612)).containsExactly("b");
+		assertThat(loadedIndex.projectUsage(285612, MCVersions.V1_14_4)).isEqualTo(1);
+		assertThat(loadedIndex.mostUsedProjects(10)).containsExactly(32274, 285612);
+	}
+
+	@Test
+	public void invalidSnapshotsShouldThrowCurseException(@TempDir Path tempDirectory)
+			throws IOException {
+		final Path snapshot = tempDirectory.resolve("index.bin");
+		Files.write(snapshot, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+		assertThatThrownBy(() -> ModpackIndex.load(snapshot)).
+				isInstanceOf(CurseException.class).
+				hasMessageContaining("Invalid modpack index");
+	}
+
+	@Test
+	public void corruptedSnapshotsShouldThrowCurseException(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final Path snapshot = tempDirectory.resolve("index.bin");
+		new ModpackIndex().add("a", CurseModpack.createEmpty().
+				mcVersion(MCVersions.V1_12_2).
+				files(Arrays.asList(
+						new BasicCurseFile.Immutable(285612, 2803612),
+						new BasicCurseFile.Immutable(32274, 2839369)
+				))).save(snapshot);
+		final byte[] bytes = Files.readAllBytes(snapshot);
+		//The header, the modpack count, the ID "a" and the Minecraft version "1.12.2".
+		final int fileCountOffset = 12 + 3 + 8;
+		assertThat(bytes[fileCountOffset]).isEqualTo((byte) 2);
+
+		//A file count that is larger than the snapshot should not be allocated.
+		final byte[] largeCount = Arrays.copyOf(bytes, bytes.length + 4);
+		System.arraycopy(
+				bytes, fileCountOffset + 1, largeCount, fileCountOffset + 5,
+				bytes.length - fileCountOffset - 1
+		);
+		largeCount[fileCountOffset] = (byte) 0xFF;
+		largeCount[fileCountOffset + 1] = (byte) 0xFF;
+		largeCount[fileCountOffset + 2] = (byte) 0xFF;
+		largeCount[fileCountOffset + 3] = (byte) 0xFF;
+		largeCount[fileCountOffset + 4] = 0x07;
+		Files.write(snapshot, largeCount);
+		assertThatThrownBy(() -> ModpackIndex.load(snapshot)).
+				isInstanceOf(CurseException.class).
+				hasMessageContaining("Invalid modpack index");
+
+		//Files that are not sorted should be rejected.
+		final byte[] unsortedFiles = bytes.clone();
+		unsortedFiles[fileCountOffset] = 3;
+		Files.write(snapshot, Arrays.copyOf(unsortedFiles, unsortedFiles.length + 1));
+		assertThatThrownBy(() -> ModpackIndex.load(snapshot)).
+				isInstanceOf(CurseException.class).
+				hasMessageContaining("Invalid modpack index");
+
+		//A truncated snapshot should also be rejected.
+		Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 1));
+		assertThatThrownBy(() -> ModpackIndex.load(snapshot)).
+				isInstanceOf(CurseException.class).
+				hasMessageContaining("Failed to load modpack index");
+	}
+
+	private static ModpackIndex createIndex() {
+		return new ModpackIndex().
+				add("a", CurseModpack.createEmpty().files(Arrays.asList(
+						new BasicCurseFile.Immutable(285612, 2803612),
+						new BasicCurseFile.Immutable(285612, 2803612)
+				))).
+				add("b", CurseModpack.createEmpty().files(Arrays.asList(
+						new BasicCurseFile.Immutable(285612, 2803612),
+						new BasicCurseFile.Immutable(32274, 2839369)
+				))).
+				add("c", CurseModpack.createEmpty().
+						mcVersion(MCVersions.V1_14_4).
+						files(Arrays.asList(
+								new BasicCurseFile.Immutable(285612, 2803613),
+								new BasicCurseFile.Immutable(32274, 2839370)
+						)));
+	}
+}
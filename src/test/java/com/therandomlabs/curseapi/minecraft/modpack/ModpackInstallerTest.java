@@ -0,0 +1,254 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Strings;
+import com.sun.net.httpserver.HttpServer;
+import com.therandomlabs.curseapi.CurseException;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ModpackInstallerTest {
+	private static final byte[] CONTENT = new byte[100_000];
+
+	static {
+		for (int i = 0; i < CONTENT.length; i++) {
+			CONTENT[i] = (byte) i;
+		}
+	}
+
+	private final OkHttpClient client = new OkHttpClient();
+	private final List<String> ranges = new CopyOnWriteArrayList<>();
+	private final AtomicInteger activeRequests = new AtomicInteger();
+	private final AtomicInteger maximumActiveRequests = new AtomicInteger();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private HttpServer server;
+
+	@BeforeEach
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.setExecutor(executor);
+		server.createContext("/", exchange -> {
+			maximumActiveRequests.accumulateAndGet(activeRequests.incrementAndGet(), Math::max);
+
+			try {
+				final String range = exchange.getRequestHeaders().getFirst("Range");
+				ranges.add(String.valueOf(range));
+				Thread.sleep(50L);
+
+				if (exchange.getRequestURI().getPath().equals("/missing.jar")) {
+					exchange.sendResponseHeaders(404, -1L);
+					return;
+				}
+
+				//Ranges are in the format "bytes=<start>-".
+				final int start = range == null ?
+						0 : Integer.parseInt(range.substring(6, range.length() - 1));
+				exchange.sendResponseHeaders(
+						range == null ? 200 : 206, (long) CONTENT.length - start
+				);
+
+				try (OutputStream body = exchange.getResponseBody()) {
+					body.write(CONTENT, start, CONTENT.length - start);
+				}
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			} finally {
+				activeRequests.decrementAndGet();
+				exchange.close();
+			}
+		});
+		server.start();
+	}
+
+	@AfterEach
+	public void stopServer() {
+		server.stop(0);
+		executor.shutdown();
+	}
+
+	@Test
+	public void filesShouldBeDownloadedWithBoundedConcurrency(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final List<FileDownload> downloads = new ArrayList<>();
+
+		for (int i = 0; i < 6; i++) {
+			downloads.add(download(tempDirectory, "mod" + i + ".jar", i));
+		}
+
+		final List<Path> paths = FileDownload.downloadAll(downloads, 2, client, null);
+		assertThat(paths).hasSize(6);
+		assertThat(maximumActiveRequests).hasValue(2);
+
+		for (Path path : paths) {
+			assertThat(path).hasBinaryContent(CONTENT);
+			assertThat(path.resolveSibling(path.getFileName() + ".part")).doesNotExist();
+		}
+
+		//Files that are already present are not downloaded again.
+		ranges.clear();
+		FileDownload.downloadAll(downloads, 2, client, null);
+		assertThat(ranges).isEmpty();
+	}
+
+	@Test
+	public void partialDownloadsShouldBeResumed(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		Files.write(tempDirectory.resolve("mod.jar.part"), Arrays.copyOf(CONTENT, 40_000));
+
+		final List<Path> paths = FileDownload.downloadAll(
+				Collections.singletonList(download(tempDirectory, "mod.jar")), 1, client, null
+		);
+		assertThat(ranges).containsExactly("bytes=40000-");
+		assertThat(paths.get(0)).hasBinaryContent(CONTENT);
+	}
+
+	@Test
+	public void cachedFilesShouldNotBeDownloadedAgain(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final DownloadCache cache = new DownloadCache(tempDirectory.resolve("cache"));
+		final Path firstDirectory = Files.createDirectory(tempDirectory.resolve("first"));
+		final Path secondDirectory = Files.createDirectory(tempDirectory.resolve("second"));
+		//The first 1,000 bytes have already been downloaded, so they are hashed from disk.
+		Files.write(firstDirectory.resolve("mod.jar.part"), Arrays.copyOf(CONTENT, 1_000));
+
+		FileDownload.downloadAll(Collections.singletonList(
+				download(firstDirectory, "mod.jar", 1)
+		), 1, client, cache);
+		assertThat(ranges).containsExactly("bytes=1000-");
+		assertThat(cache.hash(1)).isEqualTo(
+				DownloadCache.toHex(DownloadCache.newDigest().digest(CONTENT))
+		);
+
+		final List<Path> paths = FileDownload.downloadAll(Collections.singletonList(
+				download(secondDirectory, "mod.jar", 1)
+		), 1, client, cache.hardLinks(false));
+		assertThat(ranges).hasSize(1);
+		assertThat(paths.get(0)).hasBinaryContent(CONTENT);
+	}
+
+	@Test
+	public void corruptedCachedFilesShouldBeDownloadedAgain(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		final Path cacheDirectory = tempDirectory.resolve("cache");
+		final DownloadCache cache = new DownloadCache(cacheDirectory).hardLinks(false);
+		final Path firstDirectory = Files.createDirectory(tempDirectory.resolve("first"));
+		final Path secondDirectory = Files.createDirectory(tempDirectory.resolve("second"));
+
+		FileDownload.downloadAll(Collections.singletonList(
+				download(firstDirectory, "mod.jar", 3)
+		), 1, client, cache);
+
+		//The cached object is corrupted without changing its size.
+		final String hash = cache.hash(3);
+		assertThat(hash).isNotNull();
+		final Path objectPath =
+				cacheDirectory.resolve("objects").resolve(hash.substring(0, 2)).resolve(hash);
+		Files.write(objectPath, new byte[CONTENT.length]);
+
+		final List<Path> paths = FileDownload.downloadAll(Collections.singletonList(
+				download(secondDirectory, "mod.jar", 3)
+		), 1, client, cache);
+		assertThat(ranges).hasSize(2);
+		assertThat(paths.get(0)).hasBinaryContent(CONTENT);
+		assertThat(objectPath).hasBinaryContent(CONTENT);
+	}
+
+	@Test
+	public void filesThatDoNotMatchShouldNotBeCached(@TempDir Path tempDirectory)
+			throws IOException {
+		final DownloadCache cache = new DownloadCache(tempDirectory.resolve("cache"));
+		final Path path = Files.write(tempDirectory.resolve("mod.jar"), CONTENT);
+		final String hash = DownloadCache.toHex(DownloadCache.newDigest().digest(CONTENT));
+
+		assertThatThrownBy(() -> cache.add(4, CONTENT.length + 1L, hash, path)).
+				isInstanceOf(IOException.class).
+				hasMessageContaining("does not match");
+		assertThatThrownBy(() -> cache.add(4, CONTENT.length, Strings.repeat("0", 64), path)).
+				isInstanceOf(IOException.class);
+		assertThat(cache.hash(4)).isNull();
+
+		cache.add(4, CONTENT.length, hash, path);
+		assertThat(cache.hash(4)).isEqualTo(hash);
+	}
+
+	@Test
+	public void filesWithWrongHashesShouldBeRejected(@TempDir Path tempDirectory)
+			throws IOException {
+		final Path cacheDirectory = tempDirectory.resolve("cache");
+		Files.createDirectories(cacheDirectory.resolve("files"));
+		Files.write(
+				cacheDirectory.resolve("files").resolve("2"),
+				Strings.repeat("0", 64).getBytes(StandardCharsets.UTF_8)
+		);
+
+		assertThatThrownBy(() -> FileDownload.downloadAll(Collections.singletonList(
+				download(tempDirectory, "mod.jar", 2)
+		), 1, client, new DownloadCache(cacheDirectory))).
+				isInstanceOf(CurseException.class).
+				hasStackTraceContaining("Expected SHA-256 hash");
+		assertThat(tempDirectory.resolve("mod.jar")).doesNotExist();
+		assertThat(tempDirectory.resolve("mod.jar.part")).doesNotExist();
+	}
+
+	@Test
+	public void failedDownloadsShouldThrowCurseException(@TempDir Path tempDirectory) {
+		assertThatThrownBy(() -> FileDownload.downloadAll(
+				Collections.singletonList(download(tempDirectory, "missing.jar")), 1, client, null
+		)).isInstanceOf(CurseException.class).hasMessageContaining("Failed to download files");
+		assertThat(tempDirectory.resolve("missing.jar")).doesNotExist();
+	}
+
+	private FileDownload download(Path directory, String name) {
+		return download(directory, name, 0);
+	}
+
+	private FileDownload download(Path directory, String name, int fileID) {
+		final HttpUrl url =
+				HttpUrl.get("http://localhost:" + server.getAddress().getPort() + '/' + name);
+		return new FileDownload(fileID, url, directory.resolve(name), CONTENT.length);
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.therandomlabs.curseapi.CurseException;
+import com.therandomlabs.curseapi.file.BasicCurseFile;
+import com.therandomlabs.curseapi.minecraft.MCVersions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ModpackScannerTest {
+	@Test
+	public void modpacksShouldBeScanned(@TempDir Path tempDirectory)
+			throws CurseException, IOException {
+		Files.createDirectories(tempDirectory.resolve("nested"));
+
+		for (int i = 0; i < 10; i++) {
+			new CurseModpackWriter(CurseModpack.createEmpty().
+					name("Modpack " + i).
+					version("1.0." + i).
+					files(Arrays.asList(
+							new BasicCurseFile.Immutable(285612, 2803612 + i),
+							new BasicCurseFile.Immutable(32274, 2839369)
+					))).
+					write(tempDirectory.resolve(i % 2 == 0 ? "nested" : ".").
+							resolve("modpack" + i + ".zip"));
+		}
+
+		Files.write(tempDirectory.resolve("invalid.zip"), new byte[] {1, 2, 3});
+		Files.write(tempDirectory.resolve("notes.txt"), new byte[] {1, 2, 3});
+
+		final Map<String, ScannedModpack> modpacks = new ConcurrentHashMap<>();
+		final List<Path> failedArchives = new CopyOnWriteArrayList<>();
+
+		final int scanned = new ModpackScanner().
+				parallelism(4).
+				errorListener((archive, ex) -> failedArchives.add(archive)).
+				scan(tempDirectory, modpack -> modpacks.put(modpack.name(), modpack));
+
+		assertThat(scanned).isEqualTo(10);
+		assertThat(modpacks).hasSize(10);
+		assertThat(failedArchives).containsExactly(tempDirectory.resolve("invalid.zip"));
+
+		final ScannedModpack modpack = modpacks.get("Modpack 3");
+		assertThat(modpack.version()).isEqualTo("1.0.3");
+		assertThat(modpack.mcVersion()).isEqualTo(MCVersions.V1_12_2);
+		assertThat(modpack.modLoader()).contains("forge-14.23.5.2847");
+		assertThat(modpack.fileCount()).isEqualTo(2);
+		assertThat(modpack.projectID(0)).isEqualTo(32274);
+		assertThat(modpack.fileID(1)).isEqualTo(2803615);
+		assertThat(modpack.containsFile(285612, 2803615)).isTrue();
+		assertThat(modpack.containsFile(285612, 2803612)).isFalse();
+		assertThat(modpack.containsProject(32274)).isTrue();
+		assertThat(modpack.containsProject(32275)).isFalse();
+	}
+}
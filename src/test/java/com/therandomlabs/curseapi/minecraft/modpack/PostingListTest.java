@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.modpack;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+public class PostingListTest {
+	@Test
+	public void postingListsShouldMatchTreeSets() {
+		final Random random = new Random(0L);
+
+		//Small bounds produce dense lists that are stored as bitmaps, and large bounds produce
+		//sparse lists that are stored as arrays.
+		for (int bound : new int[] {64, 1000, 1_000_000}) {
+			final PostingList list = new PostingList();
+			final PostingList otherList = new PostingList();
+			final TreeSet<Integer> set = new TreeSet<>();
+			final TreeSet<Integer> otherSet = new TreeSet<>();
+
+			for (int i = 0; i < 5000; i++) {
+				final int value = random.nextInt(bound);
+
+				if (random.nextInt(3) == 0) {
+					assertThat(list.remove(value)).isEqualTo(set.remove(value));
+				} else {
+					assertThat(list.add(value)).isEqualTo(set.add(value));
+				}
+
+				final int otherValue = random.nextInt(bound);
+				otherList.add(otherValue);
+				otherSet.add(otherValue);
+			}
+
+			final List<Integer> values = new ArrayList<>();
+			list.forEach(values::add);
+			assertThat(values).containsExactlyElementsOf(set);
+			assertThat(list.size()).isEqualTo(set.size());
+
+			final TreeSet<Integer> intersection = new TreeSet<>(set);
+			intersection.retainAll(otherSet);
+			assertThat(list.intersectionSize(otherList)).isEqualTo(intersection.size());
+			assertThat(otherList.intersectionSize(list)).isEqualTo(intersection.size());
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019-2020 TheRandomLabs
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of
+ * this software and associated documentation files (the "Software"), to deal in
+ * the Software without restriction, including without limitation the rights to
+ * use, copy, modify, merge, publish, distribute, sublicense, and/or sell copies of
+ * the Software, and to permit persons to whom the Software is furnished to do so,
+ * subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR
+ * COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER
+ * IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.therandomlabs.curseapi.minecraft.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LongObjectMapTest {
+	@Test
+	public void longObjectMapsShouldMatchHashMaps() {
+		final Random random = new Random(0L);
+		final LongObjectMap<String> map = new LongObjectMap<>();
+		final Map<Long, String> hashMap = new HashMap<>();
+
+		for (int i = 0; i < 20_000; i++) {
+			//Keys that differ only in their upper 32 bits should not collide.
+			final long key = random.nextInt(1000) + ((long) random.nextInt(2) << 32);
+
+			if (random.nextBoolean()) {
+				assertThat(map.remove(key)).isEqualTo(hashMap.remove(key));
+			} else {
+				assertThat(map.put(key, "value" + i)).isEqualTo(hashMap.put(key, "value" + i));
+			}
+		}
+
+		assertThat(map.size()).isEqualTo(hashMap.size());
+
+		for (Map.Entry<Long, String> entry : hashMap.entrySet()) {
+			assertThat(map.get(entry.getKey())).isEqualTo(entry.getValue());
+		}
+
+		final Map<Long, String> entries = new HashMap<>();
+		map.forEach(entries::put);
+		assertThat(entries).isEqualTo(hashMap);
+
+		map.clear();
+		assertThat(map.size()).isZero();
+		assertThat(map.get(0L)).isNull();
+	}
+}